@@ -0,0 +1,90 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.hodolmanblogstudy.moderation.BannedWordMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 금지어 검사 - 큰 글(contentLength 글자)에서 금지어(terms개) 찾기
+ * - automaton: BannedWordMatcher (Aho-Corasick, 글을 한 번만 읽는다.) -> 금지어 수와 상관없이 비슷해야 한다.
+ * - contains: 금지어마다 String.contains (이전 PostCreate.validate 방식, 정규화 없음) -> 금지어 수에 비례한다.
+ * 글자/초 = contentLength / 평균 시간
+ *
+ * 금지어가 거의 없는 보통 글이 대부분이기 때문에 금지어는 글 끝에 하나만 넣는다. (둘 다 글 전체를 읽는다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BannedWordBenchmark {
+
+    private static final String[] SENTENCES = {
+            "오늘은 스프링 부트로 블로그 API를 만들면서 JPA 영속성 컨텍스트에 대해 공부했다. ",
+            "변경 감지는 트랜잭션이 커밋될 때 스냅샷과 엔티티를 비교해서 UPDATE 쿼리를 만든다. ",
+            "페이징 처리를 하지 않으면 글이 많아졌을 때 DB와 애플리케이션 모두 부담이 커진다. ",
+            "QueryDSL을 사용하면 컴파일 시점에 쿼리 오류를 잡을 수 있어서 편하다. ",
+            "캐시를 적용하기 전과 후의 응답 시간을 비교해보니 차이가 꽤 컸다. ",
+    };
+
+    @Param({"100", "1000", "5000"})
+    public int terms;
+
+    @Param({"100000", "4000000"})
+    public int contentLength;
+
+    private List<String> words;
+    private BannedWordMatcher matcher;
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+
+        // 글에 나오지 않을 음절 2~4개짜리 금지어
+        words = new ArrayList<>(terms);
+        while (words.size() < terms) {
+            StringBuilder word = new StringBuilder();
+            int length = 2 + random.nextInt(3);
+            for (int i = 0; i < length; i++) {
+                word.append((char) ('가' + random.nextInt('힣' - '가' + 1)));
+            }
+            words.add(word.toString());
+        }
+        matcher = BannedWordMatcher.of(words);
+
+        StringBuilder builder = new StringBuilder(contentLength);
+        while (builder.length() < contentLength) {
+            builder.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        builder.setLength(contentLength);
+        builder.append(words.get(terms - 1));
+        content = builder.toString();
+    }
+
+    @Benchmark
+    public int automaton() {
+        return matcher.findAll(content, 100).size();
+    }
+
+    @Benchmark
+    public int contains() {
+        int found = 0;
+        for (String word : words) {
+            if (content.contains(word)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
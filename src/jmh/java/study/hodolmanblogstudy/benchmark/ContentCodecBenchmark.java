@@ -0,0 +1,151 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import study.hodolmanblogstudy.domain.ContentCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 글 내용 압축(ContentCodec) 비용과 효과
+ * - encode / decode / decodePrefix(요약): 압축, 압축 해제 CPU 비용
+ * - readRaw / readCompressed: 파일 H2에서 같은 글 ROWS개를 읽는 시간 (읽는 bytes가 줄어드는 효과 vs 압축 해제 비용)
+ * 압축률은 Setup에서 출력한다.
+ *
+ * 글은 실제 블로그 글처럼 여러 문장을 무작위로 섞어서 만든다. (같은 문장만 반복하면 압축률이 비현실적으로 높다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentCodecBenchmark {
+
+    private static final int ROWS = 2_000;
+
+    private static final String[] SENTENCES = {
+            "오늘은 스프링 부트로 블로그 API를 만들면서 JPA 영속성 컨텍스트에 대해 공부했다.",
+            "변경 감지는 트랜잭션이 커밋될 때 스냅샷과 엔티티를 비교해서 UPDATE 쿼리를 만든다.",
+            "페이징 처리를 하지 않으면 글이 많아졌을 때 DB와 애플리케이션 모두 부담이 커진다.",
+            "QueryDSL을 사용하면 컴파일 시점에 쿼리 오류를 잡을 수 있어서 편하다.",
+            "테스트 코드를 먼저 작성하니 요구사항이 바뀌어도 마음 편하게 리팩토링할 수 있었다.",
+            "예외 처리는 @RestControllerAdvice 한 곳에서 공통으로 처리하도록 바꿨다.",
+            "캐시를 적용하기 전과 후의 응답 시간을 비교해보니 차이가 꽤 컸다.",
+            "내일은 인증과 권한 처리를 추가하고 세션과 토큰 방식의 차이를 정리해볼 생각이다.",
+            "코드 리뷰에서 메서드 이름이 하는 일을 잘 설명하지 못한다는 이야기를 들었다.",
+            "배포 스크립트를 정리하고 로그 레벨을 환경별로 다르게 설정했다.",
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int contentLength;
+
+    private String content;
+    private String encoded;
+
+    private Path directory;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException, IOException {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(contentLength + 100);
+        while (builder.length() < contentLength) {
+            builder.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+            builder.append(random.nextInt(5) == 0 ? "\n\n" : " ");
+        }
+        content = builder.substring(0, contentLength);
+        encoded = ContentCodec.encode(content, true);
+
+        int rawBytes = content.getBytes(StandardCharsets.UTF_8).length;
+        System.out.printf("%n[압축률] %d글자: %,d bytes -> %,d bytes (%.1f%%)%n",
+                contentLength, rawBytes, encoded.length(), 100.0 * encoded.length() / rawBytes);
+
+        directory = Files.createTempDirectory("content-codec");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db") + ";CACHE_SIZE=1024");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table raw_post (id bigint primary key, content clob)");
+            statement.execute("create table compressed_post (id bigint primary key, content clob)");
+        }
+        insert("raw_post", content);
+        insert("compressed_post", encoded);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return ContentCodec.encode(content, true);
+    }
+
+    @Benchmark
+    public String decode() {
+        return ContentCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public String decodePrefix() {
+        return ContentCodec.decodePrefix(encoded.substring(0, Math.min(encoded.length(), 2048)), 200);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void readRaw(Blackhole blackhole) throws SQLException {
+        read("raw_post", false, blackhole);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void readCompressed(Blackhole blackhole) throws SQLException {
+        read("compressed_post", true, blackhole);
+    }
+
+    private void insert(String table, String value) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into " + table + " (id, content) values (?, ?)")) {
+            for (int id = 1; id <= ROWS; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, value);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void read(String table, boolean compressed, Blackhole blackhole) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select content from " + table)) {
+            while (resultSet.next()) {
+                String value = resultSet.getString(1);
+                blackhole.consume(compressed ? ContentCodec.decode(value) : value);
+            }
+        }
+    }
+}
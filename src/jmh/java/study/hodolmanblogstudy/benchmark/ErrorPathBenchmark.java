@@ -0,0 +1,101 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+import study.hodolmanblogstudy.exception.PostNotFound;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 없는 글 조회(404) 경로 vs 있는 글 조회(캐시 히트) 경로 - GET /posts/{postId} (Tomcat -> 컨트롤러 -> 예외 처리 -> 응답)
+ * - hit: 캐시된 글
+ * - notFound: 같은 없는 id를 반복 조회 (없는 글 캐시 + 스택 없는 예외 + 미리 만든 에러 응답) -> hit와 비슷해야 한다.
+ * - notFoundRandom: 매번 다른 없는 id (없는 글 캐시에 없어서 매번 DB에서 PK로 확인한다.)
+ * - stackTraceException / stacklessException: 예외 객체 생성 비용만 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ErrorPathBenchmark {
+
+    private static final long MISSING_ID = 1_000_000_000L;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private HttpRequest hit;
+    private HttpRequest notFound;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-error",
+                        "--blog.search.index-path=",
+                        "--blog.limiter.enabled=false",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        context.getBean(JdbcTemplate.class).update("insert into post (id, title, content, version, modified_at) " +
+                "values (1, '제목', '내용', 0, current_timestamp)");
+        // id를 직접 넣었기 때문에 post_seq를 넣은 범위 뒤로 옮긴다. (50 = Post의 allocationSize)
+        context.getBean(JdbcTemplate.class).execute("alter sequence post_seq restart with " + (1 + 50));
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/posts/";
+        client = HttpClient.newHttpClient();
+        hit = HttpRequest.newBuilder(URI.create(baseUrl + 1)).GET().build();
+        notFound = HttpRequest.newBuilder(URI.create(baseUrl + MISSING_ID)).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int hit() throws IOException, InterruptedException {
+        return send(hit);
+    }
+
+    @Benchmark
+    public int notFound() throws IOException, InterruptedException {
+        return send(notFound);
+    }
+
+    @Benchmark
+    public int notFoundRandom() throws IOException, InterruptedException {
+        long id = ThreadLocalRandom.current().nextLong(MISSING_ID, Long.MAX_VALUE);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + id)).GET().build());
+    }
+
+    @Benchmark
+    public RuntimeException stackTraceException() {
+        return new RuntimeException("존재하지 않는 글입니다.");
+    }
+
+    @Benchmark
+    public RuntimeException stacklessException() {
+        return new PostNotFound();
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
@@ -0,0 +1,80 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.ErrorResponse;
+import study.hodolmanblogstudy.resposne.PostResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 객체 생성 비용
+ * - PostResponse: 생성자(Post) vs 빌더
+ * - PostSearch.getOffset
+ * - ErrorResponse 생성 (빌더 + validation 추가)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private Post post;
+    private PostSearch postSearch;
+
+    @Setup
+    public void setup() {
+        post = Post.builder()
+                .title("글 제목입니다.")
+                .content("글 내용입니다.".repeat(100))
+                .build();
+
+        postSearch = PostSearch.builder()
+                .page(50_000)
+                .size(20)
+                .build();
+    }
+
+    @Benchmark
+    public PostResponse postResponseConstructor() {
+        return new PostResponse(post);
+    }
+
+    @Benchmark
+    public PostResponse postResponseBuilder() {
+        return PostResponse.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .build();
+    }
+
+    @Benchmark
+    public long postSearchOffset() {
+        return postSearch.getOffset();
+    }
+
+    @Benchmark
+    public ErrorResponse errorResponse() {
+        return ErrorResponse.builder()
+                .code("404")
+                .message("존재하지 않는 글입니다.")
+                .build();
+    }
+
+    @Benchmark
+    public ErrorResponse errorResponseWithValidation() {
+        ErrorResponse response = ErrorResponse.builder()
+                .code("400")
+                .message("잘못된 요청입니다.")
+                .build();
+        response.addValidation("title", "제목을 입력해주세요.");
+        return response;
+    }
+}
@@ -0,0 +1,100 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * 피드 한 화면에 글 count개를 가져오는 시간
+ * - single: GET /posts/{postId}를 count번 (HTTP 요청 count번)
+ * - lookup: GET /posts?ids=... 한 번
+ * 매번 ROWS개 중 무작위로 고른다. (워밍업 뒤에는 대부분 캐시에 있는 상태로 측정된다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostLookupBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"10", "50"})
+    public int count;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-lookup",
+                        "--blog.search.index-path=",
+                        "--blog.limiter.enabled=false",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        context.getBean(JdbcTemplate.class).update("insert into post (id, title, content, version, modified_at) " +
+                "select x, '제목 - ' || x, '내용 - ' || x, 0, current_timestamp from system_range(1, ?)", ROWS);
+        // id를 직접 넣었기 때문에 post_seq를 넣은 범위 뒤로 옮긴다. (50 = Post의 allocationSize)
+        context.getBean(JdbcTemplate.class).execute("alter sequence post_seq restart with " + (ROWS + 50));
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/posts";
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int single() throws IOException, InterruptedException {
+        int status = 0;
+        for (long id : randomIds()) {
+            status += send(baseUrl + "/" + id);
+        }
+        return status;
+    }
+
+    @Benchmark
+    public int lookup() throws IOException, InterruptedException {
+        String ids = randomIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        return send(baseUrl + "?ids=" + ids);
+    }
+
+    private List<Long> randomIds() {
+        return LongStream.generate(() -> ThreadLocalRandom.current().nextLong(1, ROWS + 1))
+                .limit(count)
+                .boxed()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private int send(String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
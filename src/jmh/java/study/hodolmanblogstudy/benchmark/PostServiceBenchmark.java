@@ -0,0 +1,90 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+import study.hodolmanblogstudy.request.PostCursor;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostResponse;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostService.getList 전체 경로 (QueryDSL -> Hibernate -> H2 -> PostResponse 변환)
+ * 임베디드 H2에 글 10만건을 넣고 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostServiceBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+
+    private PostSearch firstPage;
+    private PostSearch deepPage;
+    private PostSearch deepCursor;
+    private PostSearch summaryPage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .web(WebApplicationType.NONE)
+                // application.yml 보다 우선하도록 명령행 인자로 넘긴다. (properties()는 application.yml에 덮어써진다.)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh",
+                        "--blog.search.index-path=",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        context.getBean(JdbcTemplate.class).update("insert into post (id, title, content, version, modified_at) " +
+                "select x, '제목 - ' || x, repeat('내용 ', 200) || x, 0, current_timestamp from system_range(1, ?)", ROWS);
+        // id를 직접 넣었기 때문에 post_seq를 넣은 범위 뒤로 옮긴다. (50 = Post의 allocationSize)
+        context.getBean(JdbcTemplate.class).execute("alter sequence post_seq restart with " + (ROWS + 50));
+        postService = context.getBean(PostService.class);
+
+        firstPage = PostSearch.builder().page(1).size(20).build();
+        deepPage = PostSearch.builder().page(ROWS / 20).size(20).build();
+        deepCursor = PostSearch.builder().size(20).after(PostCursor.encode(21L)).build();
+        summaryPage = PostSearch.builder().page(1).size(20).summary(true).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostResponse> getListFirstPage() {
+        return postService.getList(firstPage);
+    }
+
+    @Benchmark
+    public List<PostResponse> getListDeepOffset() {
+        return postService.getList(deepPage);
+    }
+
+    @Benchmark
+    public List<PostResponse> getListDeepCursor() {
+        return postService.getList(deepCursor);
+    }
+
+    @Benchmark
+    public List<PostResponse> getListSummary() {
+        return postService.getList(summaryPage);
+    }
+}
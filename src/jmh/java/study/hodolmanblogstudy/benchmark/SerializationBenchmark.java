@@ -0,0 +1,52 @@
+package study.hodolmanblogstudy.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.hodolmanblogstudy.resposne.PostResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * 글 목록 페이지 JSON 직렬화 비용 (페이지 크기, 내용 길이별)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"5", "100", "2000"})
+    public int pageSize;
+
+    @Param({"100", "10000"})
+    public int contentLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<PostResponse> page;
+
+    @Setup
+    public void setup() {
+        String content = "가".repeat(contentLength);
+        page = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> PostResponse.builder()
+                        .id(id)
+                        .title("제목 - " + id)
+                        .content(content)
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeListPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
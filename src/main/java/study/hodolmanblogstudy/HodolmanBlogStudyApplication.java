@@ -2,12 +2,22 @@ package study.hodolmanblogstudy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class HodolmanBlogStudyApplication {
 
+    /**
+     * 시작 단계(빈 생성, JPA, 스키마 생성 등)를 최대 몇 개까지 기록할지
+     * 넘으면 이후 단계는 기록하지 않는다. (빈 수백 개 + 하위 단계)
+     */
+    private static final int STARTUP_STEPS = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(HodolmanBlogStudyApplication.class, args);
+        // 시작 단계별 소요 시간을 기록한다. -> StartupReporter, /actuator/startup
+        SpringApplication application = new SpringApplication(HodolmanBlogStudyApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
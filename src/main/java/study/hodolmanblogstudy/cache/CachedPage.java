@@ -0,0 +1,23 @@
+package study.hodolmanblogstudy.cache;
+
+import lombok.Getter;
+import study.hodolmanblogstudy.domain.PostVersion;
+
+import java.util.List;
+
+/**
+ * 캐시에 저장되는 글 목록 한 페이지 (PostPageCache)
+ * 직렬화된 JSON 배열과 함께 페이지에 포함된 글들의 버전을 저장해서
+ * 캐시 히트시 ETag, 커서 헤더도 DB 조회 없이 만든다.
+ */
+@Getter
+public class CachedPage {
+
+    private final String json;
+    private final List<PostVersion> versions;
+
+    public CachedPage(String json, List<PostVersion> versions) {
+        this.json = json;
+        this.versions = List.copyOf(versions);
+    }
+}
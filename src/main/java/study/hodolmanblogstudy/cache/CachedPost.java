@@ -0,0 +1,22 @@
+package study.hodolmanblogstudy.cache;
+
+import lombok.Getter;
+
+/**
+ * 캐시에 저장되는 글 1개 응답
+ * 직렬화된 JSON bytes와 함께 ETag, Last-Modified를 저장해서
+ * 캐시 히트시 조건부 GET(304)도 DB 조회 없이 판단한다.
+ */
+@Getter
+public class CachedPost {
+
+    private final byte[] json;
+    private final String eTag;
+    private final long lastModified;
+
+    public CachedPost(byte[] json, String eTag, long lastModified) {
+        this.json = json;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+}
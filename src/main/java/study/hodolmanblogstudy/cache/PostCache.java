@@ -0,0 +1,250 @@
+package study.hodolmanblogstudy.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.hodolmanblogstudy.domain.PostVersion;
+import study.hodolmanblogstudy.exception.PostNotFound;
+import study.hodolmanblogstudy.resposne.CacheStatsResponse;
+import study.hodolmanblogstudy.resposne.PostResponse;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 글 1개 조회(GET /posts/{postId}) 응답 캐시
+ * PostResponse 객체가 아니라 이미 직렬화된 JSON bytes를 저장한다.
+ * -> 캐시 히트시 DB 조회도, Jackson 직렬화도 하지 않는다.
+ * -> ETag, Last-Modified도 함께 저장해서 조건부 GET도 캐시에서 바로 판단한다.
+ *
+ * Caffeine(W-TinyLFU)을 사용한다.
+ * -> 단순 LRU와 달리 자주 조회되는 글이 한 번 조회된 글들에 밀려나지 않는다. (빈도 기반 eviction)
+ * -> 엔트리 개수가 아니라 bytes 크기로 최대 용량을 제한한다.
+ *
+ * 없는 글도 missing-ttl 동안 캐싱한다. (negative caching)
+ * -> 없는 id로 반복되는 요청(크롤러 등)도 DB를 조회하지 않고 바로 404로 응답한다.
+ * -> 그 id로 글이 등록되면 PostService, PostWriteBuffer가 지운다. (evict)
+ */
+@Component
+public class PostCache {
+
+    /**
+     * key, 노드, ETag 등 byte[] 외에 엔트리마다 추가로 사용하는 메모리 (대략적인 값)
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * 없는 글 표시 (json이 비어있다.)
+     */
+    private static final CachedPost NOT_FOUND = new CachedPost(new byte[0], null, -1);
+
+    private final Cache<Long, CachedPost> cache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * evict / evictAll 호출 횟수 - getAll이 DB에서 읽는 동안 수정/삭제된 글이 있는지 확인한다.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PostCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     @Value("${blog.cache.post.max-bytes:67108864}") long maxBytes,
+                     @Value("${blog.cache.post.missing-ttl:10s}") Duration missingTtl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, CachedPost cached) -> cached.getJson().length + ENTRY_OVERHEAD)
+                .expireAfter(new MissingExpiry(missingTtl.toNanos()))
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions 등을 메트릭으로 노출한다.
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "post");
+    }
+
+    /**
+     * 캐시에 없으면 loader로 조회해서 저장한다.
+     * 같은 id로 동시에 요청이 들어와도 loader는 한 번만 실행된다.
+     * loader가 PostNotFound를 던지면 없는 글로 캐싱하고, 그 외의 예외는 그대로 던지고 캐시에 저장하지 않는다.
+     *
+     * @throws PostNotFound 없는 글
+     */
+    public CachedPost get(Long id, Function<Long, CachedPost> loader) {
+        CachedPost cached = cache.get(id, key -> loadOrMissing(key, loader));
+        if (cached == NOT_FOUND) {
+            throw new PostNotFound();
+        }
+        return cached;
+    }
+
+    /**
+     * 여러 글을 한 번에 조회한다. 캐시에 없는 글만 모아서 loader를 한 번 호출한다. (IN 절 한 번)
+     * loader가 돌려주지 않은 id는 없는 글로 캐싱한다.
+     *
+     * get과 달리 loader 실행 중에 같은 id의 evict를 막지 않는다.
+     * -> loader가 읽은 뒤에 수정/삭제된 글이 캐시에 남지 않도록, 그 사이에 evict가 있었으면 저장한 엔트리를 다시 지운다.
+     *
+     * @return id -> 글 (없는 글은 포함하지 않는다.)
+     */
+    public Map<Long, CachedPost> getAll(Collection<Long> ids, Function<List<Long>, Map<Long, CachedPost>> loader) {
+        Map<Long, CachedPost> posts = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            CachedPost cached = cache.getIfPresent(id);
+            if (cached == null) {
+                misses.add(id);
+            } else if (cached != NOT_FOUND) {
+                posts.put(id, cached);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return posts;
+        }
+
+        long evictionsBeforeLoad = evictions.get();
+        Map<Long, CachedPost> loaded = loader.apply(misses);
+
+        Map<Long, CachedPost> entries = new HashMap<>();
+        for (Long id : misses) {
+            CachedPost post = loaded.get(id);
+            entries.put(id, post != null ? post : NOT_FOUND);
+            if (post != null) {
+                posts.put(id, post);
+            }
+        }
+        cache.putAll(entries);
+        if (evictions.get() != evictionsBeforeLoad) {
+            cache.invalidateAll(entries.keySet());
+        }
+        return posts;
+    }
+
+    /**
+     * 캐시에 있는지만 확인한다. (hit / miss 통계에 포함되지 않는다.)
+     */
+    public boolean contains(Long id) {
+        return cache.asMap().containsKey(id);
+    }
+
+    /**
+     * 응답을 직렬화해서 캐시 엔트리를 만든다.
+     */
+    public CachedPost toEntry(PostResponse response, PostVersion version) {
+        return new CachedPost(serialize(response), version.getETag(), version.getLastModified());
+    }
+
+    /**
+     * 글 수정/삭제시 호출한다.
+     * 트랜잭션 안에서 호출되면 커밋 전에 다른 요청이 이전 데이터를 다시 캐싱할 수 있기 때문에
+     * 트랜잭션이 끝난 뒤에 한 번 더 지운다.
+     */
+    public void evict(Long id) {
+        evictions.incrementAndGet();
+        cache.invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictions.incrementAndGet();
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 여러 글을 한 번에 삭제한다. (evict와 같지만 트랜잭션 동기화는 한 번만 등록한다.)
+     */
+    public void evictAll(Collection<Long> ids) {
+        evictions.incrementAndGet();
+        cache.invalidateAll(ids);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictions.incrementAndGet();
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+
+        return CacheStatsResponse.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .evictionWeight(stats.evictionWeight())
+                .entryCount(cache.estimatedSize())
+                .weightedSize(weightedSize)
+                .build();
+    }
+
+    private static CachedPost loadOrMissing(Long id, Function<Long, CachedPost> loader) {
+        try {
+            return loader.apply(id);
+        } catch (PostNotFound e) {
+            return NOT_FOUND;
+        }
+    }
+
+    private byte[] serialize(PostResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 없는 글만 missing-ttl 뒤에 만료된다. (있는 글은 수정/삭제시 evict 하거나 용량이 부족할 때만 제거된다.)
+     */
+    private static final class MissingExpiry implements Expiry<Long, CachedPost> {
+
+        private final long missingTtlNanos;
+
+        private MissingExpiry(long missingTtlNanos) {
+            this.missingTtlNanos = missingTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, CachedPost cached, long currentTime) {
+            return cached == NOT_FOUND ? missingTtlNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, CachedPost cached, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, cached, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, CachedPost cached, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package study.hodolmanblogstudy.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import study.hodolmanblogstudy.request.PostSearch;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 글 목록 앞 페이지 캐시 (GET /posts?page=1~max-pages)
+ * 목록 요청은 대부분 첫 몇 페이지에 몰리기 때문에 (page, size, summary)별로 페이지를 캐싱한다.
+ *
+ * 무효화는 세대(generation) 번호 하나로 한다.
+ * -> 글이 등록/수정/삭제되면 세대만 1 올린다. (페이지 수와 상관없이 O(1))
+ * -> 엔트리는 만들어질 때의 세대를 가지고 있고, 현재 세대와 다르면 다시 조회한다.
+ * -> 커밋 후에도 세대를 올리기 때문에 커밋 전 데이터로 만든 페이지가 남지 않는다. (PostCache.evict와 같다.)
+ *
+ * 같은 페이지를 동시에 조회하면 DB 조회는 한 번만 하고 나머지 요청은 그 결과를 기다린다.
+ * 전역 락 없이 ConcurrentHashMap의 key 단위 원자 연산만 사용한다.
+ *
+ * 커서, 검색어가 있는 요청, max-pages보다 뒤 페이지, max-size보다 큰 페이지는 캐싱하지 않는다.
+ */
+@Component
+public class PostPageCache {
+
+    private final int maxPages;
+    private final int maxSize;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<Key, Load> pages = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PostPageCache(MeterRegistry meterRegistry,
+                         @Value("${blog.cache.page.max-pages:3}") int maxPages,
+                         @Value("${blog.cache.page.max-size:20}") int maxSize) {
+        this.maxPages = maxPages;
+        this.maxSize = maxSize;
+
+        // post.page.cache{result=hit|miss}
+        this.hitCounter = Counter.builder("post.page.cache")
+                .description("글 목록 앞 페이지 캐시 조회 수")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("post.page.cache")
+                .description("글 목록 앞 페이지 캐시 조회 수")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public boolean isCacheable(PostSearch postSearch) {
+        return !StringUtils.hasText(postSearch.getQuery())
+                && postSearch.getAfter() == null
+                && postSearch.getBefore() == null
+                && postSearch.getPage() >= 1 && postSearch.getPage() <= maxPages
+                && postSearch.getSize() >= 1 && postSearch.getSize() <= maxSize;
+    }
+
+    /**
+     * 현재 세대의 페이지가 있으면 반환하고, 없으면 loader로 조회해서 저장한다.
+     * loader에서 발생한 예외는 그대로 던지고 캐시에 저장하지 않는다.
+     */
+    public CachedPage get(PostSearch postSearch, Supplier<CachedPage> loader) {
+        Key key = new Key(postSearch.getPage(), postSearch.getSize(), postSearch.isSummary());
+        long current = generation.get();
+
+        Load load = pages.get(key);
+        if (load != null && load.generation >= current) {
+            hitCounter.increment();
+            return join(load);
+        }
+
+        // 다른 요청이 먼저 같은 세대의 조회를 시작했으면 그 결과를 기다린다.
+        Load created = new Load(current);
+        load = pages.compute(key, (k, existing) ->
+                existing != null && existing.generation >= current ? existing : created);
+        if (load != created) {
+            hitCounter.increment();
+            return join(load);
+        }
+
+        missCounter.increment();
+        try {
+            created.result.complete(loader.get());
+        } catch (RuntimeException e) {
+            pages.remove(key, created);
+            created.result.completeExceptionally(e);
+        }
+        return join(created);
+    }
+
+    /**
+     * 글 등록/수정/삭제시 호출한다.
+     * 트랜잭션 안에서 호출되면 커밋 전에 다른 요청이 이전 데이터로 페이지를 다시 만들 수 있기 때문에
+     * 트랜잭션이 끝난 뒤에 한 번 더 세대를 올린다.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private static CachedPage join(Load load) {
+        try {
+            return load.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(int page, int size, boolean summary) {
+    }
+
+    /**
+     * 조회 중이거나 조회가 끝난 페이지 (만들기 시작한 세대)
+     */
+    private static class Load {
+
+        private final long generation;
+        private final CompletableFuture<CachedPage> result = new CompletableFuture<>();
+
+        Load(long generation) {
+            this.generation = generation;
+        }
+    }
+}
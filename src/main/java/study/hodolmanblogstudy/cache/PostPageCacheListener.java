@@ -0,0 +1,30 @@
+package study.hodolmanblogstudy.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * 엔티티로 글을 저장/수정/삭제하면 목록 캐시(PostPageCache)의 세대를 올린다.
+ * -> PostService를 거치지 않고 PostRepository로 바로 저장한 글도 flush(또는 커밋) 이후에는 목록에 반영된다.
+ * 엔티티 이벤트는 save()가 아니라 SQL이 실행되는 flush 시점에 발생한다. (id를 SEQUENCE로 만들기 때문에 persist만으로는 INSERT하지 않는다.)
+ * -> 같은 트랜잭션 안에서 flush 전에 목록을 조회하면 이전 세대의 캐시가 사용된다.
+ * 벌크 UPDATE / DELETE, JDBC로 직접 저장하는 경우는 엔티티 이벤트가 발생하지 않기 때문에 직접 invalidate 해야 한다.
+ *
+ * Hibernate가 스프링 빈으로 생성한다. (SpringBeanContainer)
+ */
+public class PostPageCacheListener {
+
+    private final PostPageCache postPageCache;
+
+    public PostPageCacheListener(PostPageCache postPageCache) {
+        this.postPageCache = postPageCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void invalidate(Object post) {
+        postPageCache.invalidate();
+    }
+}
@@ -0,0 +1,74 @@
+package study.hodolmanblogstudy.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.hodolmanblogstudy.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주 DB(spring.datasource) + 복제 DB(blog.datasource.routing.replica-urls) 라우팅
+ * 이 설정이 DataSource 빈을 만들기 때문에 스프링 부트의 기본 DataSource(Hikari)는 만들어지지 않는다.
+ * 복제 DB의 계정은 주 DB와 같다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.datasource.routing.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${blog.datasource.routing.replica-urls:}") List<String> replicaUrls,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout) {
+        HikariDataSource primary = pool(ReplicaRoutingDataSource.PRIMARY, properties.determineUrl(),
+                properties, maximumPoolSize, connectionTimeout, meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, pool(name, replicaUrls.get(i).trim(),
+                    properties, maximumPoolSize, connectionTimeout, meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+    }
+
+    /**
+     * 트랜잭션이 시작될 때가 아니라 첫 SQL을 실행할 때 커넥션을 얻는다.
+     * -> 그때는 readOnly 여부가 정해져 있어서 ReplicaRoutingDataSource가 주 / 복제 DB를 고를 수 있다.
+     * -> SQL 없이 끝나는 트랜잭션은 커넥션을 얻지 않는다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 커넥션 풀 메트릭은 hikaricp.* {pool=primary|replica-N} 으로 구분된다.
+     */
+    private static HikariDataSource pool(String name, String url, DataSourceProperties properties,
+                                         int maximumPoolSize, long connectionTimeout, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeout);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
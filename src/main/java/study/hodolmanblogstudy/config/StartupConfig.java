@@ -0,0 +1,21 @@
+package study.hodolmanblogstudy.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.metrics.ApplicationStartup;
+import study.hodolmanblogstudy.startup.RecordingSchemaManagementTool;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Hibernate 스키마 작업(ddl-auto) 시간을 시작 단계로 기록한다. (StartupReport의 hibernate.schema)
+     */
+    @Bean
+    public HibernatePropertiesCustomizer schemaManagementToolCustomizer(ApplicationStartup applicationStartup) {
+        return properties -> properties.put(AvailableSettings.SCHEMA_MANAGEMENT_TOOL,
+                new RecordingSchemaManagementTool(applicationStartup));
+    }
+}
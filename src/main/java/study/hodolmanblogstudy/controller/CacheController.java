@@ -0,0 +1,22 @@
+package study.hodolmanblogstudy.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.hodolmanblogstudy.cache.PostCache;
+import study.hodolmanblogstudy.resposne.CacheStatsResponse;
+
+@RequiredArgsConstructor
+@RestController
+public class CacheController {
+
+    private final PostCache postCache;
+
+    /**
+     * 글 1개 조회 캐시 통계 (hit / miss / eviction)
+     */
+    @GetMapping("/cache/posts/stats")
+    public CacheStatsResponse postCacheStats() {
+        return postCache.stats();
+    }
+}
@@ -1,8 +1,12 @@
 package study.hodolmanblogstudy.controller;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,16 +17,31 @@ import study.hodolmanblogstudy.exception.GlobalException;
 import study.hodolmanblogstudy.exception.InvalidRequest;
 import study.hodolmanblogstudy.resposne.ErrorResponse;
 
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ExceptionController {
 
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 예외 클래스별로 미리 만들어 둔 응답 (validation이 없는 GlobalException)
+     * 예외 클래스마다 status, 메시지가 정해져 있기 때문에 응답 JSON도 항상 같다.
+     * -> 처음 한 번만 직렬화하고, 이후에는 같은 bytes를 그대로 응답한다. (ErrorResponse, Jackson 직렬화 생략)
+     */
+    private final Map<Class<?>, ConstantError> constantErrors = new ConcurrentHashMap<>();
+
     /**
      * @Valid 애너테이션으로 데이터를 검증하고,
      * 해당 데이터에 에러가 있을 경우 스프링에서 정의한 에러, BindingResult를 상속한
      * MethodArgumentNotValidException 에러 글래스를 반환시킨다.
      */
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler(Exception.class)
+    @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorResponse invalidRequestHandler(MethodArgumentNotValidException e) {
 //            FieldError fieldError = e.getFieldError();
 //            String field = fieldError.getField();
@@ -47,7 +66,11 @@ public class ExceptionController {
      */
 //    @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(GlobalException.class)
-    public ResponseEntity<ErrorResponse> globalException(GlobalException e) {
+    public ResponseEntity<?> globalException(GlobalException e) {
+        if (e.getValidation().isEmpty()) {
+            return constantError(e);
+        }
+
         int statusCode = e.getStatus();
 
         ErrorResponse body = ErrorResponse.builder()
@@ -76,4 +99,38 @@ public class ExceptionController {
 
         return new ResponseEntity<>(body, HttpStatusCode.valueOf(statusCode));
     }
+
+    /**
+     * 메시지가 처음 만든 응답과 다르면 (같은 클래스인데 다른 메시지를 사용하는 예외) 새로 만든다.
+     */
+    private ResponseEntity<byte[]> constantError(GlobalException e) {
+        ConstantError cached = constantErrors.get(e.getClass());
+        if (cached != null && Objects.equals(cached.message(), e.getMessage())) {
+            return cached.response();
+        }
+
+        ErrorResponse body = ErrorResponse.builder()
+                .code(String.valueOf(e.getStatus()))
+                .message(e.getMessage())
+                .build();
+        ResponseEntity<byte[]> response = ResponseEntity.status(e.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serialize(body));
+
+        if (cached == null) {
+            constantErrors.putIfAbsent(e.getClass(), new ConstantError(e.getMessage(), response));
+        }
+        return response;
+    }
+
+    private byte[] serialize(ErrorResponse body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record ConstantError(String message, ResponseEntity<byte[]> response) {
+    }
 }
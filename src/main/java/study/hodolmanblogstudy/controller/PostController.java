@@ -1,32 +1,58 @@
 package study.hodolmanblogstudy.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.hodolmanblogstudy.cache.CachedPage;
+import study.hodolmanblogstudy.cache.CachedPost;
 import study.hodolmanblogstudy.domain.Post;
 import study.hodolmanblogstudy.domain.PostEditor;
+import study.hodolmanblogstudy.domain.PostVersion;
 import study.hodolmanblogstudy.exception.InvalidRequest;
+import study.hodolmanblogstudy.limiter.ConcurrencyLimit;
+import study.hodolmanblogstudy.moderation.BannedWordFilter;
+import study.hodolmanblogstudy.request.PostBulkDelete;
+import study.hodolmanblogstudy.request.PostBulkEdit;
 import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostCursor;
 import study.hodolmanblogstudy.request.PostEdit;
+import study.hodolmanblogstudy.request.PostLookup;
 import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostBatchResponse;
+import study.hodolmanblogstudy.resposne.PostLookupResponse;
 import study.hodolmanblogstudy.resposne.PostResponse;
 import study.hodolmanblogstudy.service.PostService;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static study.hodolmanblogstudy.limiter.ConcurrencyLimit.Budget.*;
+
 @Slf4j
 @RequiredArgsConstructor
 @RestController
 public class PostController {
 
     private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final BannedWordFilter bannedWordFilter;
 
     // HTTP METHOD
     // GET, POST, PUT, PATCH, DELETE, OPTIONS, HEAD, TRACE, CONNECT
@@ -106,6 +132,7 @@ public class PostController {
     }
 
     @PostMapping("/posts")
+    @ConcurrencyLimit(WRITE)
     public Long postV4(@RequestBody @Valid PostCreate request) throws Exception {
         // Case 1. 저장된 데이터 Entity -> response로 응답하기
         // Case 2. 저장한 데이터의 primary_id -> response로 응답하기
@@ -121,21 +148,72 @@ public class PostController {
 //        }
 
         // request DTO에서 바로 검증을 처리하는 것이 좋다.
-        request.validate();
+        request.validate(bannedWordFilter);
 
         return postService.write(request);
     }
 
+    /**
+     * 글 여러개 등록
+     * 글마다 검증 결과를 따로 응답하기 때문에 @Valid 대신 서비스에서 하나씩 검증한다.
+     */
+    @PostMapping("/posts/batch")
+    @ConcurrencyLimit(WRITE)
+    public PostBatchResponse postBatch(@RequestBody List<PostCreate> requests) {
+        return postService.writeAll(requests);
+    }
+
     /**
      * /posts/{postId} -> 글 한개만 조회
+     * ETag(id + version), Last-Modified를 내려주고 If-None-Match, If-Modified-Since 요청에는 304로 응답한다.
      */
     @GetMapping("/posts/{postId}")
-    public PostResponse get(@PathVariable(name = "postId") Long id) {
+    @ConcurrencyLimit(READ)
+    public ResponseEntity<byte[]> get(@PathVariable(name = "postId") Long id, WebRequest webRequest) {
         // Request 클래스
         // Response 클래스
 
-        PostResponse post = postService.get(id);
-        return post;
+        // 캐시에 없는 글의 조건부 요청은 version만 조회해서 먼저 비교한다.
+        // -> 변경이 없으면 content(LOB)를 읽지 않고 304로 응답한다.
+        if (isConditional(webRequest) && !postService.isCached(id)) {
+            PostVersion version = postService.getVersion(id);
+            if (webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+                return null;
+            }
+        }
+
+        // 캐시된 JSON bytes를 그대로 응답한다. (Jackson 직렬화 생략)
+        // 응답에 ETag, Last-Modified가 있으면 HttpEntityMethodProcessor가 조건부 요청을 확인하고 304로 응답한다.
+        CachedPost post = postService.getCached(id);
+        return conditional(ResponseEntity.ok(), post.getETag(), post.getLastModified())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(post.getJson());
+    }
+
+    /**
+     * /posts?ids=1,2,3 -> 글 여러개 조회
+     * 글마다 GET /posts/{postId}를 호출하는 대신 한 번에 조회한다. (HTTP 요청 1번, IN 쿼리 1번)
+     * 없는 글이 있어도 200으로 응답하고 missingIds로 알려준다.
+     */
+    @GetMapping(value = "/posts", params = {"ids", "!paged"})
+    @ConcurrencyLimit(READ)
+    public void getAll(@ModelAttribute PostLookup postLookup, HttpServletResponse response) throws IOException {
+        writeLookup(postService.lookup(postLookup), response);
+    }
+
+    /**
+     * id가 많아서 URL이 너무 길어지는 경우 (PostLookup.MAX_IDS개까지)
+     */
+    @PostMapping("/posts/lookup")
+    @ConcurrencyLimit(READ)
+    public void lookup(@RequestBody PostLookup postLookup, HttpServletResponse response) throws IOException {
+        writeLookup(postService.lookup(postLookup), response);
+    }
+
+    private void writeLookup(PostLookupResponse lookup, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        lookup.writeTo(response.getOutputStream());
     }
 
     /**
@@ -152,24 +230,155 @@ public class PostController {
 //        return postService.getList(pageable);
 //    }
 
+    /**
+     * 응답 바디는 기존 클라이언트를 위해 그대로 List 형태를 유지하고,
+     * 다음/이전 페이지 커서는 헤더로 내려준다.
+     * -> GET /posts?after={X-Next-Cursor} 로 다음 페이지를 조회할 수 있다.
+     *
+     * 목록을 List<PostResponse>로 만든 뒤 한 번에 직렬화하지 않고, 조회하는 대로 응답 스트림에 바로 쓴다.
+     * -> StreamingResponseBody는 별도 스레드(비동기)에서 실행되기 때문에 HttpServletResponse에 직접 쓴다.
+     */
     @GetMapping("/posts")
-    public List<PostResponse> getListV2(@ModelAttribute PostSearch postSearch) {
-        return postService.getList(postSearch);
+    @ConcurrencyLimit(READ)
+    public void getListV2(@ModelAttribute PostSearch postSearch, WebRequest webRequest,
+                          HttpServletResponse response) throws IOException {
+        // 앞 페이지는 캐시된 JSON을 그대로 응답한다. (PostPageCache)
+        CachedPage cachedPage = postService.getCachedPage(postSearch);
+        if (!prepareList(postSearch, cachedPage, webRequest, response, "")) {
+            return;
+        }
+
+        if (cachedPage != null) {
+            response.getOutputStream().write(cachedPage.getJson().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            postService.writeList(postSearch, generator);
+        }
+    }
+
+    /**
+     * /posts?paged=true -> 글 목록 + 전체 글 수, 전체 페이지 수
+     * 전체 글 수는 매번 COUNT(*)를 실행하지 않고 PostCounter 값을 사용한다. (잠시 실제 값과 다를 수 있다.)
+     */
+    @GetMapping(value = "/posts", params = "paged=true")
+    @ConcurrencyLimit(READ)
+    public void getPage(@ModelAttribute PostSearch postSearch, WebRequest webRequest,
+                        HttpServletResponse response) throws IOException {
+        Long totalCount = StringUtils.hasText(postSearch.getQuery()) ? null : postService.getTotalCount();
+
+        // 전체 글 수가 바뀌면 응답도 바뀌기 때문에 ETag에 포함한다.
+        CachedPage cachedPage = postService.getCachedPage(postSearch);
+        if (!prepareList(postSearch, cachedPage, webRequest, response, "paged:" + totalCount)) {
+            return;
+        }
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            postService.writePage(postSearch, totalCount, cachedPage, generator);
+        }
+    }
+
+    /**
+     * 목록 바디를 쓰기 전에 상태, 헤더를 정한다.
+     * 바디를 쓰기 시작한 뒤에는 상태 코드를 바꿀 수 없기 때문에 304 여부, 커서 헤더는 content 없이 조회한 버전 목록으로 먼저 정한다.
+     * 캐시된 페이지가 있으면 캐시된 버전 목록을 사용한다. (DB 조회 없음)
+     *
+     * @return 304 Not Modified인 경우 false
+     */
+    private boolean prepareList(PostSearch postSearch, CachedPage cachedPage, WebRequest webRequest,
+                                HttpServletResponse response, String variant) {
+        // 목록의 ETag는 페이지에 포함된 글들의 id, version으로 만든다. (content는 읽지 않는다.)
+        // 검색 결과는 검색 인덱스에 따라 달라지기 때문에 ETag, 커서 헤더를 내려주지 않는다. (검색은 커서를 사용하지 않는다.)
+        if (!StringUtils.hasText(postSearch.getQuery())) {
+            List<PostVersion> versions = cachedPage != null
+                    ? cachedPage.getVersions()
+                    : postService.getVersionList(postSearch);
+            String eTag = PostVersion.listETag(versions, (postSearch.isSummary() ? "summary" : "full") + variant);
+
+            // 304가 아니어도 ETag, Last-Modified 헤더를 추가한다.
+            if (webRequest.checkNotModified(eTag, PostVersion.listLastModified(versions))) {
+                return false;
+            }
+
+            if (!versions.isEmpty()) {
+                response.setHeader(PostCursor.NEXT_HEADER, PostCursor.encode(versions.get(versions.size() - 1).getId()));
+                response.setHeader(PostCursor.PREV_HEADER, PostCursor.encode(versions.get(0).getId()));
+            }
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return true;
+    }
+
+    /**
+     * 전체 글 내보내기 (NDJSON)
+     * 응답을 한 번에 만들지 않고 조회하는 대로 바로 내려보낸다.
+     * 응답 시간이 글 수에 비례하기 때문에 동시 처리 제한(@ConcurrencyLimit)의 응답 시간 기준에 포함하지 않는다.
+     */
+    @GetMapping("/posts/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = postService::export;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static ResponseEntity.BodyBuilder conditional(ResponseEntity.BodyBuilder builder, String eTag, long lastModified) {
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
     }
 
     /**
      * post 수정
+     * If-Match 헤더에 조회시 받은 ETag를 보내면 그 사이에 다른 요청이 수정한 경우 412로 응답한다.
      */
     @PatchMapping("/posts/{postId}")
-    public void edit(@PathVariable(name = "postId") Long id, @RequestBody PostEdit postEditor) {
-        postService.edit(id, postEditor);
+    @ConcurrencyLimit(WRITE)
+    public void edit(@PathVariable(name = "postId") Long id, @RequestBody PostEdit postEditor,
+                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        postService.edit(id, postEditor, PostVersion.versionOf(id, ifMatch));
+    }
+
+    /**
+     * post 여러개를 같은 값으로 수정
+     * 수정된 글 수를 응답한다.
+     */
+    @PatchMapping("/posts")
+    @ConcurrencyLimit(WRITE)
+    public Long editAll(@RequestBody PostBulkEdit postBulkEdit) {
+        return postService.editAll(postBulkEdit);
     }
 
     /**
      * post 삭제
      */
     @DeleteMapping("/posts/{postId}")
+    @ConcurrencyLimit(WRITE)
     public void delete(@PathVariable(name = "postId") Long id) {
         postService.delete(id);
     }
+
+    /**
+     * post 여러개 삭제 (스팸 일괄 삭제 등)
+     * DELETE /posts?ids=1,2,3 또는 DELETE /posts?from=100&to=200
+     * 삭제된 글 수를 응답한다.
+     */
+    @DeleteMapping("/posts")
+    @ConcurrencyLimit(WRITE)
+    public Long deleteAll(@ModelAttribute PostBulkDelete postBulkDelete) {
+        return postService.deleteAll(postBulkDelete);
+    }
 }
@@ -0,0 +1,62 @@
+package study.hodolmanblogstudy.counter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.hodolmanblogstudy.repository.PostStore;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전체 글 수
+ * 글 목록 요청마다 SELECT COUNT(*)를 실행하지 않도록 메모리에 유지한다.
+ * -> 글 등록/삭제가 커밋되면 PostService가 값을 바꾼다.
+ * -> 주기적으로(reconcile-interval) 테이블의 COUNT(*)로 다시 맞춘다.
+ *
+ * 오차 범위 (다음 reconcile 전까지 남아있을 수 있다.)
+ * 1. 다른 서버(인스턴스)에서 등록/삭제한 글, SQL로 직접 변경한 데이터는 다음 reconcile 때 반영된다.
+ * 2. reconcile의 COUNT(*)가 실행되는 동안 커밋된 등록/삭제는 한 번 더 세거나 빠질 수 있다.
+ * -> 즉, 최대 reconcile-interval 동안 위 변경 수만큼 실제 값과 다를 수 있다.
+ */
+@Slf4j
+@Component
+public class PostCounter {
+
+    private final PostStore postStore;
+    private final AtomicLong count = new AtomicLong();
+
+    public PostCounter(PostStore postStore, MeterRegistry meterRegistry) {
+        this.postStore = postStore;
+
+        Gauge.builder("post.count", count, AtomicLong::get)
+                .description("전체 글 수 (PostCounter)")
+                .register(meterRegistry);
+    }
+
+    public long get() {
+        return Math.max(count.get(), 0);
+    }
+
+    /**
+     * 커밋된 등록(양수) / 삭제(음수) 수만큼 바꾼다.
+     */
+    public void add(long delta) {
+        count.addAndGet(delta);
+    }
+
+    /**
+     * 테이블의 실제 글 수로 다시 맞춘다. (애플리케이션 시작시 바로 한 번 실행된다.)
+     * 요청 처리 중에는 실행되지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${blog.counter.post.reconcile-interval:60000}")
+    public void reconcile() {
+        long actual = postStore.count();
+        long previous = count.getAndSet(actual);
+
+        if (previous != actual) {
+            log.debug("글 수를 다시 맞췄습니다. {} -> {}", previous, actual);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package study.hodolmanblogstudy.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 글을 쓴(POST, PATCH, DELETE 등) 클라이언트는 read-your-writes-window 동안 읽기도 주 DB에서 처리한다.
+ * 복제 DB는 주 DB보다 늦게 반영되기 때문에 글을 쓰고 바로 조회하면 이전 내용이 보일 수 있다.
+ *
+ * 쓴 시간을 쿠키에 저장한다. -> 서버가 여러 대여도, 서버가 재시작되어도 같은 클라이언트를 알아볼 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.datasource.routing.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "blog_last_write";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    /**
+     * 바디 때문에 POST로 보내지만 읽기만 하는 요청 (글 여러개 조회)
+     */
+    private static final Set<String> READ_PATHS = Set.of("/posts/lookup");
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(@Value("${blog.datasource.routing.read-your-writes-window:5s}") Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod()) && !READ_PATHS.contains(request.getServletPath());
+        if (write) {
+            // 응답 본문을 쓰기 전에 추가한다. (쓰기가 실패해도 window 동안 주 DB에서 읽을 뿐이다.)
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, windowMillis / 1000));
+            response.addCookie(cookie);
+        }
+
+        if (!write && !wroteRecently(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaRoutingDataSource.setPrimaryOnly(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.setPrimaryOnly(false);
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return now - Long.parseLong(cookie.getValue()) < windowMillis;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,199 @@
+package study.hodolmanblogstudy.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 / 쓰기 DataSource 라우팅 (blog.datasource.routing.enabled=true)
+ *
+ * - @Transactional(readOnly = true) 안에서 얻는 커넥션 -> 정상(healthy)인 복제 DB 중 하나 (라운드 로빈)
+ * - 그 외 (쓰기 트랜잭션, 트랜잭션 밖) -> 주 DB
+ * - 읽기라도 최근에 글을 쓴 클라이언트의 요청은 주 DB로 보낸다. (ReadYourWritesFilter)
+ *   -> 복제 지연(replication lag) 때문에 방금 쓴 글이 보이지 않는 문제를 막는다.
+ * - 캐시를 채우는 조회도 주 DB에서 읽는다. (onPrimary)
+ * - 정상인 복제 DB가 없으면 주 DB에서 읽는다.
+ *
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않았기 때문에 LazyConnectionDataSourceProxy로 감싸서
+ * 첫 SQL을 실행할 때 커넥션을 얻도록 한다. (DataSourceConfig)
+ *
+ * 메트릭: datasource.route{target, type} - 어느 DB로 몇 번 읽고(read) 썼는지(write)
+ *        datasource.replica.healthy{replica} - 복제 DB 상태 (1: 정상, 0: 제외)
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    /**
+     * 복제 DB 상태 확인(Connection.isValid) 제한 시간 (초)
+     */
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 1;
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryWrites;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryWrites = routeCounter(meterRegistry, PRIMARY, "write");
+        this.primaryReads = routeCounter(meterRegistry, PRIMARY, "read");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routeCounter(meterRegistry, name, "read"));
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+        });
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * 이 스레드의 읽기 전용 트랜잭션도 주 DB에서 처리한다. (ReadYourWritesFilter)
+     */
+    public static void setPrimaryOnly(boolean primaryOnly) {
+        if (primaryOnly) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    /**
+     * loader를 주 DB에서 실행한다. (읽기 전용 트랜잭션도) 끝나면 이전 상태로 되돌린다.
+     * 캐시를 채우는 조회처럼 결과가 오래 남는 조회에 사용한다. -> 복제 지연된 값이 캐시에 남지 않는다.
+     */
+    public static <T> T onPrimary(Supplier<T> loader) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return loader.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+
+        Replica replica = PRIMARY_ONLY.get() == null ? nextHealthyReplica() : null;
+        if (replica == null) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+
+        replica.reads.increment();
+        return replica.name;
+    }
+
+    /**
+     * 복제 DB에 커넥션을 얻어서 확인한다. 실패하면 다음 확인에 성공할 때까지 읽기 대상에서 제외한다.
+     */
+    @Scheduled(fixedDelayString = "${blog.datasource.routing.health-check-interval:5000}",
+            initialDelayString = "${blog.datasource.routing.health-check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = isValid(replica.dataSource);
+            if (healthy != replica.healthy) {
+                log.warn("복제 DB 상태가 바뀌었습니다. replica={}, healthy={}", replica.name, healthy);
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public boolean isHealthy(String replicaName) {
+        return replicas.stream()
+                .anyMatch(replica -> replica.name.equals(replicaName) && replica.healthy);
+    }
+
+    /**
+     * DataSourceConfig에서 만든 커넥션 풀(빈이 아니다.)을 닫는다.
+     */
+    @Override
+    public void destroy() throws Exception {
+        close(primary);
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isValid(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String type) {
+        return Counter.builder("datasource.route")
+                .tag("target", target)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package study.hodolmanblogstudy.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 글 내용 압축 형식
+ * MARKER + base64(deflate(UTF-8 bytes))
+ *
+ * 압축된 값은 항상 MARKER로 시작하기 때문에 압축된 글과 압축되지 않은(기존) 글이 같은 컬럼에 섞여 있어도 구분할 수 있다.
+ * 컬럼 타입(CLOB)을 바꾸지 않도록 base64 문자열로 저장한다.
+ */
+public final class ContentCodec {
+
+    /**
+     * 일반 글이 시작할 일이 없는 제어 문자(U+0001)로 시작한다.
+     * 원문이 MARKER로 시작하는 경우에는 항상 압축해서 저장하기 때문에 잘못 해석되지 않는다.
+     */
+    public static final String MARKER = "\u0001z1:";
+
+    /**
+     * 이보다 짧은 글은 압축해도 거의 줄지 않기 때문에 그대로 저장한다. (UTF-8 bytes)
+     */
+    private static final int MIN_COMPRESS_BYTES = 256;
+
+    private ContentCodec() {
+    }
+
+    public static boolean isEncoded(String value) {
+        return value != null && value.startsWith(MARKER);
+    }
+
+    /**
+     * compress가 false여도 원문이 MARKER로 시작하면 압축한다. (구분할 수 없기 때문에)
+     * 압축한 결과가 원문보다 크면 원문 그대로 저장한다.
+     */
+    public static String encode(String text, boolean compress) {
+        if (text == null) {
+            return null;
+        }
+
+        boolean ambiguous = text.startsWith(MARKER);
+        if (!compress && !ambiguous) {
+            return text;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (!ambiguous && raw.length < MIN_COMPRESS_BYTES) {
+            return text;
+        }
+
+        String encoded = MARKER + Base64.getEncoder().encodeToString(deflate(raw));
+        return ambiguous || encoded.length() < raw.length ? encoded : text;
+    }
+
+    /**
+     * 압축되지 않은 값은 그대로 반환한다.
+     */
+    public static String decode(String value) {
+        if (!isEncoded(value)) {
+            return value;
+        }
+
+        byte[] compressed = Base64.getDecoder().decode(value.substring(MARKER.length()));
+        return new String(inflate(compressed, Integer.MAX_VALUE), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 글 앞부분 maxChars 글자만 꺼낸다. (목록 요약용)
+     * value는 DB에서 앞부분만 잘라온 값이어도 된다. -> deflate는 앞에서부터 순서대로 풀 수 있다.
+     */
+    public static String decodePrefix(String value, int maxChars) {
+        if (value == null) {
+            return null;
+        }
+
+        String text = value;
+        if (isEncoded(value)) {
+            String base64 = value.substring(MARKER.length());
+            // 잘린 위치가 base64 4글자 단위가 아니면 버린다.
+            base64 = base64.substring(0, base64.length() - base64.length() % 4);
+            byte[] compressed = Base64.getDecoder().decode(base64);
+
+            // UTF-8은 한 글자에 최대 4 bytes
+            long maxBytes = (long) maxChars * 4;
+            text = new String(inflate(compressed, (int) Math.min(maxBytes, Integer.MAX_VALUE)), StandardCharsets.UTF_8);
+        }
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * maxBytes 만큼 풀었거나, 입력이 끝나면(잘린 입력 포함) 멈춘다.
+     */
+    private static byte[] inflate(byte[] compressed, int maxBytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(compressed.length * 4, maxBytes));
+            byte[] buffer = new byte[8192];
+            while (out.size() < maxBytes && !inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("압축된 글 내용을 읽을 수 없습니다.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -5,32 +5,77 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import study.hodolmanblogstudy.cache.PostPageCacheListener;
+
+import java.time.Instant;
 
 @Entity
+@EntityListeners(PostPageCacheListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Post {
 
+    /**
+     * IDENTITY 전략은 INSERT를 실행해야 id를 알 수 있기 때문에 Hibernate가 JDBC batch insert를 할 수 없다.
+     * SEQUENCE 전략은 시퀀스에서 id를 미리 받아오기 때문에 INSERT를 모아서 한 번에 보낼 수 있다.
+     * allocationSize 만큼 id를 한 번에 가져와서 시퀀스 조회 횟수도 줄인다.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     private String title;
 
+    /**
+     * 설정에 따라 압축해서 저장한다. (PostContentConverter)
+     * getContent()를 호출할 때 따로 조회한다. (바이트코드 향상 필요 - build.gradle의 hibernate 설정)
+     * -> 제목, version 등만 필요한 경우 엔티티를 조회해도 content(LOB)를 읽지 않는다.
+     * -> 영속성 컨텍스트가 닫힌 뒤(준영속)에 처음 호출하면 LazyInitializationException이 발생한다.
+     *    content가 필요한 조회는 DTO로 바로 조회한다. (PostRepositoryImpl)
+     */
     @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = PostContentConverter.class)
     private String content;
 
+    /**
+     * 수정될 때마다 1씩 증가한다. (낙관적 락)
+     * ETag(조건부 GET)에도 사용한다. -> 글 내용을 읽지 않고 version만 비교해서 304 Not Modified를 응답할 수 있다.
+     */
+    @Version
+    private Long version;
+
+    private Instant modifiedAt;
+
     @Builder
     public Post(String title, String content) {
         this.title = title;
         this.content = content;
     }
 
+    /**
+     * JPA 밖의 저장소(LogPostRepository)에 저장된 글을 엔티티 객체로 만든다. (영속성 컨텍스트가 관리하지 않는다.)
+     */
+    public static Post restore(Long id, String title, String content, Long version, Instant modifiedAt) {
+        Post post = new Post(title, content);
+        post.id = id;
+        post.version = version;
+        post.modifiedAt = modifiedAt;
+        return post;
+    }
+
     public void changePost(String title, String content) {
         this.title = title;
         this.content = content;
     }
 
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.modifiedAt = Instant.now();
+    }
+
 //    public PostEditor.PostEditorBuilder toEditor() {
 //        return PostEditor.builder()
 //                .title(title)
@@ -0,0 +1,40 @@
+package study.hodolmanblogstudy.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Post.content 저장시 압축, 조회시 압축 해제 (ContentCodec)
+ * 엔티티 매핑에서 처리하기 때문에 서비스, 리포지토리 코드는 압축 여부를 몰라도 된다.
+ *
+ * blog.storage.compress-content=true 인 경우에만 압축해서 저장한다.
+ * 읽을 때는 설정과 상관없이 압축된 글을 풀어서 반환한다. (설정을 꺼도 이미 압축된 글을 읽을 수 있다.)
+ *
+ * Hibernate가 스프링 빈으로 생성한다. (SpringBeanContainer)
+ */
+@Converter
+public class PostContentConverter implements AttributeConverter<String, String> {
+
+    private final boolean compress;
+
+    public PostContentConverter() {
+        this(false);
+    }
+
+    @Autowired
+    public PostContentConverter(@Value("${blog.storage.compress-content:false}") boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String content) {
+        return ContentCodec.encode(content, compress);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String value) {
+        return ContentCodec.decode(value);
+    }
+}
@@ -0,0 +1,40 @@
+package study.hodolmanblogstudy.domain;
+
+import lombok.Getter;
+import study.hodolmanblogstudy.resposne.PostResponse;
+
+import java.time.Instant;
+
+/**
+ * 글 1개 조회용 DTO (엔티티 대신 한 번의 쿼리로 내용과 버전을 함께 조회한다.)
+ * 내용과 버전을 따로 조회하면 그 사이에 글이 수정되었을 때 다른 버전의 ETag가 붙을 수 있다.
+ */
+@Getter
+public class PostDetail {
+
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final Long version;
+    private final Instant modifiedAt;
+
+    public PostDetail(Long id, String title, String content, Long version, Instant modifiedAt) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.version = version;
+        this.modifiedAt = modifiedAt;
+    }
+
+    public PostResponse toResponse() {
+        return PostResponse.builder()
+                .id(id)
+                .title(title)
+                .content(content)
+                .build();
+    }
+
+    public PostVersion toVersion() {
+        return new PostVersion(id, version, modifiedAt);
+    }
+}
@@ -0,0 +1,120 @@
+package study.hodolmanblogstudy.domain;
+
+import lombok.Getter;
+import study.hodolmanblogstudy.exception.PostPreconditionFailed;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 글의 버전 정보 (content 없이 id, version, 수정 시간만 조회한다.)
+ * 조건부 GET(If-None-Match / If-Modified-Since)을 판단할 때 사용한다.
+ */
+@Getter
+public class PostVersion {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final Long id;
+    private final Long version;
+    private final Instant modifiedAt;
+
+    public PostVersion(Long id, Long version, Instant modifiedAt) {
+        this.id = id;
+        this.version = version;
+        this.modifiedAt = modifiedAt;
+    }
+
+    public static PostVersion of(Post post) {
+        return new PostVersion(post.getId(), post.getVersion(), post.getModifiedAt());
+    }
+
+    /**
+     * 강한 ETag -> "{id}-{version}"
+     * version은 글이 수정될 때마다 증가하기 때문에 같은 ETag면 응답 bytes도 같다.
+     */
+    public String getETag() {
+        return "\"" + id + "-" + versionOrZero() + "\"";
+    }
+
+    /**
+     * If-Match 헤더에서 수정할 글의 버전을 꺼낸다.
+     * 헤더가 없거나 "*"이면 버전을 확인하지 않는다. (null)
+     * 이 글의 ETag가 아니면 버전이 일치할 수 없으므로 PostPreconditionFailed
+     *
+     * 압축된 응답(server.compression)의 ETag는 Tomcat이 약한 ETag(W/"{id}-{version}")로 바꿔서 내려준다.
+     * -> 압축 전 응답은 같은 버전이기 때문에 W/를 떼고 비교한다.
+     */
+    public static Long versionOf(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String prefix = "\"" + id + "-";
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith(WEAK_PREFIX)) {
+            eTag = eTag.substring(WEAK_PREFIX.length());
+        }
+        if (!eTag.startsWith(prefix) || !eTag.endsWith("\"") || eTag.length() <= prefix.length()) {
+            throw new PostPreconditionFailed();
+        }
+
+        try {
+            return Long.parseLong(eTag.substring(prefix.length(), eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PostPreconditionFailed(e);
+        }
+    }
+
+    /**
+     * Last-Modified (epoch millis)
+     * 수정 시간이 없는 글(직접 INSERT한 데이터 등)은 -1 -> Last-Modified 헤더를 내려주지 않는다.
+     */
+    public long getLastModified() {
+        return modifiedAt != null ? modifiedAt.toEpochMilli() : -1;
+    }
+
+    /**
+     * 글 목록의 ETag
+     * 목록에 포함된 글의 id, version을 순서대로 해시한다.
+     * -> 글이 추가/수정/삭제되거나 순서가 바뀌면 ETag도 바뀐다.
+     * variant는 같은 글 목록이라도 응답 형태가 다른 경우(요약 목록 등)를 구분하기 위해 사용한다.
+     */
+    public static String listETag(List<PostVersion> versions, String variant) {
+        MessageDigest digest = sha256();
+        digest.update(variant.getBytes(StandardCharsets.UTF_8));
+        for (PostVersion version : versions) {
+            digest.update((";" + version.getId() + "-" + version.versionOrZero()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // 256bit 전체를 쓸 필요는 없으므로 앞 16바이트만 사용한다.
+        byte[] hash = digest.digest();
+        return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    }
+
+    /**
+     * 글 목록의 Last-Modified -> 목록에서 가장 최근에 수정된 글의 수정 시간
+     */
+    public static long listLastModified(List<PostVersion> versions) {
+        return versions.stream()
+                .mapToLong(PostVersion::getLastModified)
+                .max()
+                .orElse(-1);
+    }
+
+    private long versionOrZero() {
+        return version != null ? version : 0;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
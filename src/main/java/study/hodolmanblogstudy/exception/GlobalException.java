@@ -10,23 +10,36 @@ import java.util.Map;
  * 1. public abstract int statusCode();
  *  -> status 코드에 대해 강제 구현
  * 2. 다른 곳에서 new로 객체 생성을 막는다.
+ *
+ * 도메인 예외는 예상된 실패(없는 글, 잘못된 요청 등)를 응답으로 바꾸기 위해서만 사용한다.
+ * -> 스택 트레이스를 만들지 않는다. (writableStackTrace = false) 예외 생성 비용의 대부분이 스택을 수집하는 비용이다.
+ *    없는 글 id로 반복되는 요청(404)도 정상 조회만큼 싸게 처리한다.
+ * -> 원인 예외(cause)의 스택 트레이스는 그대로 남는다.
+ * -> validation Map은 검증 오류를 추가할 때만 만든다.
  */
 @Getter
 public abstract class GlobalException extends RuntimeException {
 
-    private final Map<String, String> validation = new HashMap<>();
+    private Map<String, String> validation;
 
     public GlobalException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public GlobalException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 
     public abstract int getStatus();
 
+    public Map<String, String> getValidation() {
+        return validation != null ? validation : Map.of();
+    }
+
     public void addValidation(String fieldName, String message) {
+        if (validation == null) {
+            validation = new HashMap<>();
+        }
         validation.put(fieldName, message);
     }
 }
@@ -1,29 +1,23 @@
 package study.hodolmanblogstudy.exception;
 
-import lombok.Getter;
-
 /**
  * 클라이언트 요구 정책 추가
  * PostController -> postV4 메서드
  *
  * status: 400 (클라이언트 잘못)
+ *
+ * 필드별 오류는 validation에 담는다. (message 필드를 따로 두면 Lombok getter가 Throwable.getMessage()를 덮어써서 null이 된다.)
  */
-@Getter
 public class InvalidRequest extends GlobalException {
 
     private static final String MESSAGE = "잘못된 요청입니다.";
 
-    private String fieldName;
-    private String message;
-
     public InvalidRequest() {
         super(MESSAGE);
     }
 
     public InvalidRequest(String fieldName, String message) {
         super(MESSAGE);
-//        this.fieldName = fieldName;
-//        this.message = message;
         addValidation(fieldName, message);
     }
 
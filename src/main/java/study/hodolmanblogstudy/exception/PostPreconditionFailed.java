@@ -0,0 +1,24 @@
+package study.hodolmanblogstudy.exception;
+
+/**
+ * If-Match로 보낸 버전이 현재 글의 버전과 다른 경우 (다른 요청이 먼저 수정함)
+ *
+ * status: 412 (Precondition Failed)
+ */
+public class PostPreconditionFailed extends GlobalException {
+
+    private static final String MESSAGE = "다른 요청에 의해 글이 수정되었습니다.";
+
+    public PostPreconditionFailed() {
+        super(MESSAGE);
+    }
+
+    public PostPreconditionFailed(Throwable cause) {
+        super(MESSAGE, cause);
+    }
+
+    @Override
+    public int getStatus() {
+        return 412;
+    }
+}
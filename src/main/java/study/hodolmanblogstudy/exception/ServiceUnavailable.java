@@ -0,0 +1,24 @@
+package study.hodolmanblogstudy.exception;
+
+/**
+ * 요청이 몰려서 지금은 처리할 수 없는 경우 (잠시 후 다시 시도하면 처리될 수 있다.)
+ *
+ * status: 503 (Service Unavailable)
+ */
+public class ServiceUnavailable extends GlobalException {
+
+    private static final String MESSAGE = "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.";
+
+    public ServiceUnavailable() {
+        super(MESSAGE);
+    }
+
+    public ServiceUnavailable(Throwable cause) {
+        super(MESSAGE, cause);
+    }
+
+    @Override
+    public int getStatus() {
+        return 503;
+    }
+}
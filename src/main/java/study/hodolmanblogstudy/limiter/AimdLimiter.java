@@ -0,0 +1,115 @@
+package study.hodolmanblogstudy.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시 처리 요청 수 제한 (AIMD: Additive Increase, Multiplicative Decrease)
+ * 고정된 한도 대신 응답 시간을 보고 한도를 조절한다.
+ * -> 응답이 latency-threshold 안에 끝나고 한도 가까이 사용 중이면 한도를 1 늘린다.
+ * -> 응답이 latency-threshold를 넘거나 5xx로 끝나면 한도를 backoff-ratio 배로 줄인다.
+ *    이미 처리 중이던 요청들이 한꺼번에 느리게 끝나도 한 번만 줄이기 위해
+ *    마지막으로 줄인 뒤에 시작한 요청의 결과로만 다시 줄인다. (TCP 혼잡 제어와 같다.)
+ *
+ * 한도를 넘는 요청은 기다리지 않고 바로 거절한다. -> DB, 커넥션 풀이 느려져도 처리 중인 요청 수가 늘어나지 않는다.
+ *
+ * 메트릭 (budget 태그로 구분)
+ * - post.limiter.limit: 현재 한도
+ * - post.limiter.inflight: 처리 중인 요청 수
+ * - post.limiter.rejected: 한도를 넘어서 거절한 요청 수
+ */
+public class AimdLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    private volatile double limit;
+
+    /**
+     * 마지막으로 한도를 줄인 시각 (System.nanoTime)
+     */
+    private long lastDecreaseNanos = System.nanoTime();
+
+    @Builder
+    public AimdLimiter(String budget, int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                       MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+
+        Gauge.builder("post.limiter.limit", this, AimdLimiter::getLimit)
+                .description("동시 처리 요청 수 한도")
+                .tag("budget", budget)
+                .register(meterRegistry);
+        Gauge.builder("post.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("처리 중인 요청 수")
+                .tag("budget", budget)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("post.limiter.rejected")
+                .description("한도를 넘어서 거절한 요청 수")
+                .tag("budget", budget)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 한도 안이면 처리 중인 요청 수를 1 늘리고 true, 한도를 넘으면 false
+     * true를 받은 경우에만 처리가 끝난 뒤에 release를 호출해야 한다.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejectedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param startNanos tryAcquire 성공시 System.nanoTime()
+     * @param failed     과부하로 실패한 경우 (5xx 등)
+     */
+    public void release(long startNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        long endNanos = System.nanoTime();
+        onSample(startNanos, endNanos, current, failed || endNanos - startNanos > latencyThresholdNanos);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long startNanos, long endNanos, int inFlight, boolean overloaded) {
+        if (overloaded) {
+            if (startNanos - lastDecreaseNanos > 0) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                lastDecreaseNanos = endNanos;
+            }
+            return;
+        }
+
+        // 한도를 다 쓰지 않는 상황(요청이 적음)에서는 응답이 빨라도 한도를 늘리지 않는다. (한도가 끝없이 커지는 것 방지)
+        if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
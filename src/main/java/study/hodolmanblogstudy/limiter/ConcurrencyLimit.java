@@ -0,0 +1,21 @@
+package study.hodolmanblogstudy.limiter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드에 붙이면 해당 예산(budget)의 동시 처리 요청 수 제한을 받는다. (ConcurrencyLimitInterceptor)
+ * 읽기와 쓰기는 DB 부하가 달라서 한도를 따로 조절한다. -> 쓰기가 몰려도 읽기 요청은 계속 처리된다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    Budget value();
+
+    enum Budget {
+        READ, WRITE
+    }
+}
@@ -0,0 +1,103 @@
+package study.hodolmanblogstudy.limiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import study.hodolmanblogstudy.exception.ServiceUnavailable;
+
+import java.time.Duration;
+
+/**
+ * @ConcurrencyLimit 이 붙은 컨트롤러 메서드의 동시 처리 요청 수를 제한한다. (AimdLimiter)
+ * 한도를 넘는 요청은 컨트롤러를 실행하지 않고 바로 503으로 응답한다. (ExceptionController에서 ErrorResponse로 변환)
+ * blog.limiter.enabled=false 이면 제한하지 않는다.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final boolean enabled;
+    private final AimdLimiter readLimiter;
+    private final AimdLimiter writeLimiter;
+
+    public ConcurrencyLimitInterceptor(MeterRegistry meterRegistry,
+                                       @Value("${blog.limiter.enabled:true}") boolean enabled,
+                                       @Value("${blog.limiter.read.initial-limit:50}") int readInitialLimit,
+                                       @Value("${blog.limiter.read.min-limit:5}") int readMinLimit,
+                                       @Value("${blog.limiter.read.max-limit:500}") int readMaxLimit,
+                                       @Value("${blog.limiter.read.latency-threshold:200ms}") Duration readLatencyThreshold,
+                                       @Value("${blog.limiter.write.initial-limit:20}") int writeInitialLimit,
+                                       @Value("${blog.limiter.write.min-limit:2}") int writeMinLimit,
+                                       @Value("${blog.limiter.write.max-limit:200}") int writeMaxLimit,
+                                       @Value("${blog.limiter.write.latency-threshold:500ms}") Duration writeLatencyThreshold) {
+        this.enabled = enabled;
+        this.readLimiter = AimdLimiter.builder()
+                .budget("read")
+                .initialLimit(readInitialLimit)
+                .minLimit(readMinLimit)
+                .maxLimit(readMaxLimit)
+                .latencyThreshold(readLatencyThreshold)
+                .meterRegistry(meterRegistry)
+                .build();
+        this.writeLimiter = AimdLimiter.builder()
+                .budget("write")
+                .initialLimit(writeInitialLimit)
+                .minLimit(writeMinLimit)
+                .maxLimit(writeMaxLimit)
+                .latencyThreshold(writeLatencyThreshold)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        ConcurrencyLimit concurrencyLimit = handlerMethod.getMethodAnnotation(ConcurrencyLimit.class);
+        if (concurrencyLimit == null) {
+            return true;
+        }
+
+        AimdLimiter limiter = concurrencyLimit.value() == ConcurrencyLimit.Budget.READ ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            throw new ServiceUnavailable();
+        }
+
+        request.setAttribute(PERMIT, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * 예외를 ExceptionController가 처리한 경우 ex는 null이기 때문에 응답 상태로 실패 여부를 판단한다.
+     * 404, 400 등은 과부하가 아니기 때문에 5xx만 실패로 본다.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof Permit permit) {
+            request.removeAttribute(PERMIT);
+            permit.limiter.release(permit.startNanos, ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AimdLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    public AimdLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    private record Permit(AimdLimiter limiter, long startNanos) {
+    }
+}
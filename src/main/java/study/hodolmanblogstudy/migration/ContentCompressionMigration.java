@@ -0,0 +1,90 @@
+package study.hodolmanblogstudy.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.hodolmanblogstudy.domain.ContentCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 압축 저장(blog.storage.compress-content=true)을 켠 뒤, 기존에 압축되지 않은 글을 백그라운드에서 조금씩 압축한다.
+ *
+ * - migration-interval 마다 migration-batch-size 개씩 id 순서대로 처리한다. (DB 부하를 나눈다.)
+ * - 글 내용(의미)은 바뀌지 않기 때문에 version은 그대로 둔다. -> ETag, 캐시도 그대로 유효하다.
+ * - 읽은 뒤에 다른 요청이 글을 수정했으면(version이 다르면) 덮어쓰지 않는다. (그 글은 수정할 때 이미 압축되어 저장된다.)
+ * - 엔티티로 처리하면 값이 같아서 변경 감지가 UPDATE를 하지 않기 때문에 JDBC로 직접 처리한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blog.storage.compress-content", havingValue = "true")
+public class ContentCompressionMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * 다음 배치는 이 id 다음부터 처리한다.
+     */
+    private long lastId = 0;
+    private volatile boolean done;
+
+    public ContentCompressionMigration(JdbcTemplate jdbcTemplate,
+                                       @Value("${blog.storage.migration-batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.storage.migration-interval:1000}",
+            initialDelayString = "${blog.storage.migration-interval:1000}")
+    public void migrateNextBatch() {
+        if (done) {
+            return;
+        }
+
+        if (migrateBatch() == 0) {
+            done = true;
+            log.info("기존 글 압축을 마쳤습니다.");
+        }
+    }
+
+    /**
+     * 압축되지 않은 글을 batch-size 개 읽어서 압축한다.
+     *
+     * @return 읽은 글 수 (0이면 더 이상 압축할 글이 없다.)
+     */
+    public synchronized int migrateBatch() {
+        List<Object[]> rows = jdbcTemplate.query(
+                "select id, version, content from post " +
+                        "where id > ? and cast(substring(content, 1, ?) as varchar(16)) <> ? " +
+                        "order by id limit ?",
+                (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getObject("version", Long.class), rs.getString("content")},
+                lastId, ContentCodec.MARKER.length(), ContentCodec.MARKER, batchSize);
+
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String content = (String) row[2];
+            String encoded = ContentCodec.encode(content, true);
+
+            // 짧거나 압축해도 줄지 않는 글은 그대로 둔다.
+            if (!encoded.equals(content)) {
+                Long version = (Long) row[1];
+                updates.add(new Object[]{encoded, row[0], version != null ? version : -1L});
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("update post set content = ? where id = ? and coalesce(version, -1) = ?", updates);
+        }
+
+        if (!rows.isEmpty()) {
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+            log.debug("글 {}개 중 {}개를 압축했습니다. (id <= {})", rows.size(), updates.size(), lastId);
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,173 @@
+package study.hodolmanblogstudy.moderation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.hodolmanblogstudy.exception.InvalidRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 글 제목 / 내용 금지어 검사 (PostCreate.validate)
+ *
+ * 금지어 = blog.moderation.banned-words + 금지어 파일(blog.moderation.dictionary-path, 한 줄에 하나, #으로 시작하면 주석)
+ * 금지어 파일이 바뀌면 reload-interval 안에 다시 읽는다. (서버 재시작 없이 반영)
+ * -> 새 BannedWordMatcher를 만든 다음 바꿔 끼우기 때문에 검사 중인 요청은 이전 금지어로 끝까지 검사한다.
+ * -> 파일을 읽지 못하면 이전 금지어를 그대로 사용한다.
+ */
+@Slf4j
+@Component
+public class BannedWordFilter {
+
+    /**
+     * 필드마다 응답에 포함하는 최대 위치 수 - 금지어로 채운 큰 글이 와도 에러 응답이 커지지 않는다.
+     */
+    static final int MAX_REPORTED_MATCHES = 100;
+
+    private final List<String> bannedWords;
+    private final Path dictionaryPath;
+
+    private volatile BannedWordMatcher matcher;
+    private volatile FileVersion loadedVersion;
+
+    public BannedWordFilter(@Value("${blog.moderation.banned-words:바보}") List<String> bannedWords,
+                            @Value("${blog.moderation.dictionary-path:}") String dictionaryPath) {
+        this.bannedWords = List.copyOf(bannedWords);
+        this.dictionaryPath = StringUtils.hasText(dictionaryPath) ? Path.of(dictionaryPath) : null;
+        this.matcher = BannedWordMatcher.of(this.bannedWords);
+        reload();
+    }
+
+    /**
+     * @throws InvalidRequest 금지어가 있는 필드마다 금지어와 위치(글자 위치, 끝은 포함하지 않는다.)를 담는다.
+     */
+    public void validate(String title, String content) {
+        BannedWordMatcher matcher = this.matcher;
+        InvalidRequest invalidRequest = null;
+        invalidRequest = check(matcher, invalidRequest, "title", "제목", title);
+        invalidRequest = check(matcher, invalidRequest, "content", "내용", content);
+        if (invalidRequest != null) {
+            throw invalidRequest;
+        }
+    }
+
+    public int size() {
+        return matcher.size();
+    }
+
+    @Scheduled(fixedDelayString = "${blog.moderation.reload-interval:10000}",
+            initialDelayString = "${blog.moderation.reload-interval:10000}")
+    public void reloadIfModified() {
+        if (dictionaryPath == null) {
+            return;
+        }
+        FileVersion version = FileVersion.of(dictionaryPath);
+        if (!version.equals(loadedVersion)) {
+            reload();
+        }
+    }
+
+    /**
+     * 금지어 파일을 다시 읽어서 검사기를 바꾼다.
+     */
+    public synchronized void reload() {
+        if (dictionaryPath == null) {
+            return;
+        }
+
+        // 읽는 중에 파일이 바뀌면 다음 확인 때 다시 읽도록 읽기 전에 버전을 확인한다.
+        FileVersion version = FileVersion.of(dictionaryPath);
+        List<String> words = new ArrayList<>(bannedWords);
+        try {
+            for (String line : Files.readAllLines(dictionaryPath, StandardCharsets.UTF_8)) {
+                String word = line.strip();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            log.warn("금지어 파일이 없습니다. 기본 금지어만 사용합니다. path={}", dictionaryPath);
+        } catch (IOException e) {
+            log.error("금지어 파일을 읽지 못했습니다. 이전 금지어를 사용합니다. path={}", dictionaryPath, e);
+            return;
+        }
+
+        matcher = BannedWordMatcher.of(words);
+        loadedVersion = version;
+        log.info("금지어를 불러왔습니다. path={}, words={}", dictionaryPath, matcher.size());
+    }
+
+    private static InvalidRequest check(BannedWordMatcher matcher, InvalidRequest invalidRequest,
+                                        String fieldName, String label, String text) {
+        if (text == null) {
+            return invalidRequest;
+        }
+
+        List<BannedWordMatcher.Match> matches = matcher.findAll(text, MAX_REPORTED_MATCHES + 1);
+        if (matches.isEmpty()) {
+            return invalidRequest;
+        }
+
+        if (invalidRequest == null) {
+            invalidRequest = new InvalidRequest();
+        }
+        invalidRequest.addValidation(fieldName, label + "에 금지어를 포함할 수 없습니다. " + describe(matches));
+        return invalidRequest;
+    }
+
+    /**
+     * 금지어별로 위치를 모은다. 바보(0~2, 10~12), 멍청이(5~8)
+     */
+    private static String describe(List<BannedWordMatcher.Match> matches) {
+        boolean truncated = matches.size() > MAX_REPORTED_MATCHES;
+        Map<String, StringBuilder> positions = new LinkedHashMap<>();
+        for (BannedWordMatcher.Match match : matches.subList(0, Math.min(matches.size(), MAX_REPORTED_MATCHES))) {
+            StringBuilder builder = positions.get(match.word());
+            if (builder == null) {
+                builder = new StringBuilder();
+                positions.put(match.word(), builder);
+            } else {
+                builder.append(", ");
+            }
+            builder.append(match.start()).append('~').append(match.end());
+        }
+
+        StringBuilder description = new StringBuilder();
+        positions.forEach((word, builder) -> {
+            if (!description.isEmpty()) {
+                description.append(", ");
+            }
+            description.append(word).append('(').append(builder).append(')');
+        });
+        if (truncated) {
+            description.append(" 외 더 있음");
+        }
+        return description.toString();
+    }
+
+    /**
+     * 수정 시간 + 크기 (파일이 없으면 둘 다 -1)
+     */
+    private record FileVersion(long lastModified, long size) {
+
+        static FileVersion of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileVersion(attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                return new FileVersion(-1, -1);
+            }
+        }
+    }
+}
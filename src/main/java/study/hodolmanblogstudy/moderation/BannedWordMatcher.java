@@ -0,0 +1,385 @@
+package study.hodolmanblogstudy.moderation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 금지어 검사 - Aho-Corasick 오토마톤
+ * 금지어가 몇 개든 글을 처음부터 끝까지 한 번만 읽는다. (금지어마다 contains를 호출하면 금지어 수 x 글 길이)
+ *
+ * 우회 표현을 잡기 위해 금지어와 글을 같은 방식으로 정규화(normalize)해서 비교한다.
+ * - 공백, 제로폭 문자, 문장 부호, 기호는 무시한다. "바 보", "바.보", "바(제로폭 공백)보" -> "바보"
+ * - 한글 음절은 자모로 분해한다. 조합형(NFD)으로 보낸 "바보"와 완성형 "바보"가 같아진다.
+ * - 영문은 소문자로, 전각 영문/숫자는 반각으로 바꾼다.
+ * 자모로 비교하지만 음절 중간에서 시작하거나 끝나는 일치는 버린다. "바봉"은 "바보"가 아니다.
+ *
+ * 만든 뒤에는 바뀌지 않기 때문에 여러 스레드가 함께 사용해도 된다. (금지어가 바뀌면 새로 만든다. - BannedWordFilter)
+ */
+public final class BannedWordMatcher {
+
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+    private static final String JONGSEONG = "\0ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ";
+
+    private static final char SYLLABLE_BEGIN = '가';
+    private static final char SYLLABLE_END = '힣';
+    private static final int JUNGSEONG_COUNT = 21;
+    private static final int JONGSEONG_COUNT = 28;
+
+    /**
+     * 조합형(첫가끝) 자모 - 초성 ᄀ~ᄒ, 중성 ᅡ~ᅵ, 종성 ᆨ~ᇂ
+     */
+    private static final char CONJOINING_CHOSEONG_BEGIN = '\u1100';
+    private static final char CONJOINING_CHOSEONG_END = '\u1112';
+    private static final char CONJOINING_JUNGSEONG_BEGIN = '\u1161';
+    private static final char CONJOINING_JUNGSEONG_END = '\u1175';
+    private static final char CONJOINING_JONGSEONG_BEGIN = '\u11A8';
+    private static final char CONJOINING_JONGSEONG_END = '\u11C2';
+
+    /**
+     * 정규화된 문자가 음절의 시작 / 끝인지 (자모가 아닌 문자는 둘 다)
+     */
+    private static final int START = 1;
+    private static final int END = 2;
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final String[] words;
+    private final int[] wordLengths;
+    private final int maxWordLength;
+
+    /**
+     * 상태(노드)별 자식 - labels[childOffsets[s] .. childOffsets[s + 1]) 에 정렬된 문자, targets에 다음 상태
+     * 루트의 자식은 매번 찾게 되기 때문에 문자로 바로 찾는 표(rootTargets)를 따로 둔다.
+     */
+    private final int[] childOffsets;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] rootTargets;
+
+    private final int[] fail;
+    /**
+     * 이 상태에서 끝나는 금지어 (없으면 NONE), 실패 링크를 따라가서 처음 만나는 금지어가 있는 상태 (없으면 NONE)
+     */
+    private final int[] output;
+    private final int[] outputLink;
+
+    private BannedWordMatcher(String[] words, int[] wordLengths, int maxWordLength,
+                              int[] childOffsets, char[] labels, int[] targets, int[] rootTargets,
+                              int[] fail, int[] output, int[] outputLink) {
+        this.words = words;
+        this.wordLengths = wordLengths;
+        this.maxWordLength = maxWordLength;
+        this.childOffsets = childOffsets;
+        this.labels = labels;
+        this.targets = targets;
+        this.rootTargets = rootTargets;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * 정규화하면 빈 문자열이 되는 금지어(공백, 기호만 있는 경우)와 중복은 제외한다.
+     */
+    public static BannedWordMatcher of(Collection<String> bannedWords) {
+        List<String> words = new ArrayList<>();
+        List<char[]> keys = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+        for (String word : bannedWords) {
+            if (word == null) {
+                continue;
+            }
+            char[] key = normalize(word);
+            if (key.length > 0 && seen.add(new String(key))) {
+                words.add(word.strip());
+                keys.add(key);
+            }
+        }
+
+        // 1. 트라이
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        outputs.add(NONE);
+
+        int maxWordLength = 1;
+        int[] wordLengths = new int[keys.size()];
+        for (int w = 0; w < keys.size(); w++) {
+            char[] key = keys.get(w);
+            int state = ROOT;
+            for (char c : key) {
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    outputs.add(NONE);
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.set(state, w);
+            wordLengths[w] = key.length;
+            maxWordLength = Math.max(maxWordLength, key.length);
+        }
+
+        // 2. 배열로 옮긴다.
+        int size = children.size();
+        int[] childOffsets = new int[size + 1];
+        for (int s = 0; s < size; s++) {
+            childOffsets[s + 1] = childOffsets[s] + children.get(s).size();
+        }
+        char[] labels = new char[childOffsets[size]];
+        int[] targets = new int[childOffsets[size]];
+        for (int s = 0; s < size; s++) {
+            int i = childOffsets[s];
+            for (Map.Entry<Character, Integer> child : children.get(s).entrySet()) {
+                labels[i] = child.getKey();
+                targets[i] = child.getValue();
+                i++;
+            }
+        }
+        int[] rootTargets = new int[Character.MAX_VALUE + 1];
+        children.get(ROOT).forEach((c, target) -> rootTargets[c] = target);
+
+        // 3. 실패 링크 (BFS - 얕은 상태부터)
+        int[] fail = new int[size];
+        int[] output = outputs.stream().mapToInt(Integer::intValue).toArray();
+        int[] outputLink = new int[size];
+        Arrays.fill(outputLink, NONE);
+
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = childOffsets[ROOT]; i < childOffsets[ROOT + 1]; i++) {
+            queue[tail++] = targets[i];
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = childOffsets[state]; i < childOffsets[state + 1]; i++) {
+                char c = labels[i];
+                int child = targets[i];
+
+                int f = fail[state];
+                int next;
+                while ((next = f == ROOT ? rootTargets[c] : find(childOffsets, labels, targets, f, c)) == NONE) {
+                    f = fail[f];
+                }
+                fail[child] = next;
+                outputLink[child] = output[next] != NONE ? next : outputLink[next];
+                queue[tail++] = child;
+            }
+        }
+
+        return new BannedWordMatcher(words.toArray(String[]::new), wordLengths, maxWordLength,
+                childOffsets, labels, targets, rootTargets, fail, output, outputLink);
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * 글에서 금지어를 모두 찾는다. (겹치는 위치도 각각 찾는다.)
+     * limit개를 찾으면 멈춘다. -> 금지어로 채운 큰 글도 결과가 limit개를 넘지 않는다.
+     */
+    public List<Match> findAll(CharSequence text, int limit) {
+        Scanner scanner = new Scanner(limit);
+        normalize(text, scanner);
+        return scanner.matches;
+    }
+
+    public boolean containsAny(CharSequence text) {
+        return !findAll(text, 1).isEmpty();
+    }
+
+    /**
+     * 정규화된 문자 하나씩 오토마톤을 진행한다.
+     * 일치한 금지어의 원래 시작 위치를 알기 위해 최근 maxWordLength개 문자의 원래 위치와 음절 시작 여부를 링 버퍼에 둔다.
+     */
+    private final class Scanner implements UnitSink {
+
+        private final int limit;
+        private final int mask;
+        private final int[] indexes;
+        private final byte[] flags;
+        private final List<Match> matches = new ArrayList<>();
+
+        private int state = ROOT;
+        private int position = -1;
+
+        private Scanner(int limit) {
+            this.limit = limit;
+            int capacity = Integer.highestOneBit(maxWordLength * 2 - 1);
+            this.mask = capacity - 1;
+            this.indexes = new int[capacity];
+            this.flags = new byte[capacity];
+        }
+
+        @Override
+        public boolean accept(char c, int index, int flag) {
+            position++;
+            indexes[position & mask] = index;
+            flags[position & mask] = (byte) flag;
+
+            state = next(state, c);
+            if ((flag & END) == 0) {
+                return true;
+            }
+
+            int s = output[state] != NONE ? state : outputLink[state];
+            for (; s != NONE; s = outputLink[s]) {
+                int word = output[s];
+                int start = (position - wordLengths[word] + 1) & mask;
+                if ((flags[start] & START) == 0) {
+                    continue;
+                }
+                matches.add(new Match(words[word], indexes[start], index + 1));
+                if (matches.size() >= limit) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            if (state == ROOT) {
+                return rootTargets[c];
+            }
+            int next = find(childOffsets, labels, targets, state, c);
+            if (next != NONE) {
+                return next;
+            }
+            state = fail[state];
+        }
+    }
+
+    private static int find(int[] childOffsets, char[] labels, int[] targets, int state, char c) {
+        int low = childOffsets[state];
+        int high = childOffsets[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return targets[mid];
+            }
+        }
+        return NONE;
+    }
+
+    static char[] normalize(CharSequence text) {
+        StringBuilder normalized = new StringBuilder(text.length() * 3);
+        normalize(text, (c, index, flag) -> {
+            normalized.append(c);
+            return true;
+        });
+        char[] result = new char[normalized.length()];
+        normalized.getChars(0, normalized.length(), result, 0);
+        return result;
+    }
+
+    /**
+     * 정규화된 문자를 sink로 하나씩 보낸다. (글 전체를 정규화한 사본을 만들지 않는다.)
+     */
+    private static void normalize(CharSequence text, UnitSink sink) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (c >= SYLLABLE_BEGIN && c <= SYLLABLE_END) {
+                int syllable = c - SYLLABLE_BEGIN;
+                int jong = syllable % JONGSEONG_COUNT;
+                int jung = syllable / JONGSEONG_COUNT % JUNGSEONG_COUNT;
+                int cho = syllable / JONGSEONG_COUNT / JUNGSEONG_COUNT;
+                if (!sink.accept(CHOSEONG.charAt(cho), i, START)
+                        || !sink.accept(JUNGSEONG.charAt(jung), i, jong == 0 ? END : 0)
+                        || (jong != 0 && !sink.accept(JONGSEONG.charAt(jong), i, END))) {
+                    return;
+                }
+                continue;
+            }
+
+            if (c >= CONJOINING_CHOSEONG_BEGIN && c <= CONJOINING_CHOSEONG_END) {
+                if (!sink.accept(CHOSEONG.charAt(c - CONJOINING_CHOSEONG_BEGIN), i, START)) {
+                    return;
+                }
+                continue;
+            }
+            if (c >= CONJOINING_JUNGSEONG_BEGIN && c <= CONJOINING_JUNGSEONG_END) {
+                boolean hasJong = i + 1 < length && isConjoiningJongseong(text.charAt(i + 1));
+                if (!sink.accept(JUNGSEONG.charAt(c - CONJOINING_JUNGSEONG_BEGIN), i, hasJong ? 0 : END)) {
+                    return;
+                }
+                continue;
+            }
+            if (isConjoiningJongseong(c)) {
+                if (!sink.accept(JONGSEONG.charAt(c - CONJOINING_JONGSEONG_BEGIN + 1), i, END)) {
+                    return;
+                }
+                continue;
+            }
+
+            if (isIgnorable(c)) {
+                continue;
+            }
+            // 전각 ！~～ -> 반각 !~~
+            if (c >= '\uFF01' && c <= '\uFF5E') {
+                c = (char) (c - '\uFF01' + '!');
+            }
+            if (!sink.accept(Character.toLowerCase(c), i, START | END)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isConjoiningJongseong(char c) {
+        return c >= CONJOINING_JONGSEONG_BEGIN && c <= CONJOINING_JONGSEONG_END;
+    }
+
+    private static boolean isIgnorable(char c) {
+        if (c <= ' ') {
+            return true;
+        }
+        if (c < 0x80) {
+            return !Character.isLetterOrDigit(c);
+        }
+        return switch (Character.getType(c)) {
+            case Character.SPACE_SEPARATOR, Character.LINE_SEPARATOR, Character.PARAGRAPH_SEPARATOR,
+                 Character.CONTROL, Character.FORMAT,
+                 Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION,
+                 Character.START_PUNCTUATION, Character.END_PUNCTUATION,
+                 Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION,
+                 Character.MATH_SYMBOL, Character.CURRENCY_SYMBOL, Character.MODIFIER_SYMBOL,
+                 Character.OTHER_SYMBOL, Character.NON_SPACING_MARK -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return false면 정규화를 멈춘다.
+     */
+    @FunctionalInterface
+    private interface UnitSink {
+
+        boolean accept(char c, int index, int flag);
+    }
+
+    /**
+     * 일치한 금지어와 원래 글에서의 위치 [start, end)
+     */
+    public record Match(String word, int start, int end) {
+    }
+}
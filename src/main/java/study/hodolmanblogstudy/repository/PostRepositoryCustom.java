@@ -1,11 +1,45 @@
 package study.hodolmanblogstudy.repository;
 
 import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.domain.PostDetail;
+import study.hodolmanblogstudy.domain.PostVersion;
 import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostResponse;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PostRepositoryCustom {
 
-    List<Post> getList(PostSearch postSearch);
+    List<PostResponse> getList(PostSearch postSearch);
+
+    List<PostResponse> getSummaryList(PostSearch postSearch);
+
+    Stream<PostResponse> streamList(PostSearch postSearch);
+
+    PostDetail getDetail(Long id);
+
+    List<PostDetail> getDetails(List<Long> ids);
+
+    List<PostResponse> getResponses(List<Long> ids);
+
+    List<Long> getExistingIds(List<Long> ids);
+
+    PostVersion getVersion(Long id);
+
+    List<PostVersion> getVersionList(PostSearch postSearch);
+
+    List<Long> saveAllInBatch(List<Post> posts);
+
+    long updatePost(Long id, String title, String content, Long expectedVersion);
+
+    long updatePosts(List<Long> ids, String title, String content);
+
+    long deletePost(Long id);
+
+    long deletePosts(List<Long> ids);
+
+    List<Long> getIdsInRange(Long fromId, Long toId, Long afterId, int limit);
+
+    Stream<PostResponse> streamAll();
 }
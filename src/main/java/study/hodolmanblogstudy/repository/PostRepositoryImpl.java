@@ -1,28 +1,423 @@
 package study.hodolmanblogstudy.repository;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.dml.DMLClause;
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import study.hodolmanblogstudy.domain.ContentCodec;
 import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.domain.PostDetail;
+import study.hodolmanblogstudy.domain.PostVersion;
 import study.hodolmanblogstudy.domain.QPost;
 import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostResponse;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static study.hodolmanblogstudy.domain.QPost.*;
 
 @RequiredArgsConstructor
 public class PostRepositoryImpl implements PostRepositoryCustom {
 
+    /**
+     * 목록용 요약 내용 길이
+     */
+    private static final int EXCERPT_LENGTH = 200;
+
+    /**
+     * 압축된 글에서 요약(EXCERPT_LENGTH 글자)을 풀기 위해 가져오는 앞부분 길이
+     * base64 2048글자 -> 압축 데이터 1536 bytes -> 원문 1536 bytes 이상 (압축해서 줄어든 경우에만 압축해서 저장하기 때문에)
+     * -> UTF-8 한 글자 최대 4 bytes 기준으로 200글자보다 충분히 길다.
+     */
+    private static final int COMPRESSED_EXCERPT_LENGTH = 2048;
+
+    /**
+     * hibernate.jdbc.batch_size 와 같은 값
+     * batch 단위로 flush + clear 해서 영속성 컨텍스트가 계속 커지지 않도록 한다.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * 전체 내보내기(export)시 DB에서 한 번에 가져오는 row 수
+     */
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * 목록을 스트리밍으로 조회할 때 DB에서 한 번에 가져오는 row 수
+     */
+    private static final int LIST_FETCH_SIZE = 100;
+
+    /**
+     * id 목록으로 조회할 때 IN 절 하나에 넣는 최대 id 수
+     * DB마다 IN 절 / 바인딩 파라미터 수 제한이 있고 (Oracle 1000개 등), 너무 긴 SQL은 실행 계획 캐시에도 좋지 않다.
+     */
+    private static final int IN_CHUNK_SIZE = 500;
+
+    /**
+     * 목록 요약 내용
+     * substring 결과에는 PostContentConverter가 적용되지 않는다. (DB에 저장된 값 그대로)
+     * 압축된 글(ContentCodec)은 요약 길이만큼 풀 수 있을 정도의 앞부분을 가져와서 그 부분만 압축을 푼다.
+     * LOB끼리 비교할 수 없는 DB가 있기 때문에 앞부분을 문자열로 변환해서 비교한다.
+     */
+    private static final StringExpression EXCERPT = new CaseBuilder()
+            .when(Expressions.stringTemplate("cast(substring({0}, 1, {1}) as String)",
+                    post.content, ContentCodec.MARKER.length()).eq(ContentCodec.MARKER))
+            .then(post.content.substring(0, COMPRESSED_EXCERPT_LENGTH))
+            .otherwise(post.content.substring(0, EXCERPT_LENGTH));
+
     private final JPAQueryFactory query;
+    private final EntityManager em;
 
+    /**
+     * 목록 조회
+     * content는 지연 로딩(LAZY)이기 때문에 엔티티로 조회하면 글마다 content 조회 쿼리가 추가로 실행된다. (N + 1)
+     * -> DTO로 한 번에 조회한다.
+     */
     @Override
-    public List<Post> getList(PostSearch postSearch) {
+    public List<PostResponse> getList(PostSearch postSearch) {
+        return fetchPage(query.select(responseProjection()).from(post), postSearch);
+    }
+
+    /**
+     * 글 1개 조회 (내용 + 버전)
+     * 글이 없으면 null
+     */
+    @Override
+    public PostDetail getDetail(Long id) {
         return query
-                .selectFrom(post)
+                .select(Projections.constructor(PostDetail.class,
+                        post.id,
+                        post.title,
+                        post.content,
+                        post.version,
+                        post.modifiedAt))
+                .from(post)
+                .where(post.id.eq(id))
+                .fetchOne();
+    }
+
+    /**
+     * 글 여러개 조회 (내용 + 버전)
+     * IN_CHUNK_SIZE개씩 나눠서 IN 절로 조회한다. (id 1000개 -> 쿼리 2번)
+     * 순서는 보장하지 않고, 없는 글은 제외된다.
+     */
+    @Override
+    public List<PostDetail> getDetails(List<Long> ids) {
+        List<PostDetail> details = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            details.addAll(query
+                    .select(Projections.constructor(PostDetail.class,
+                            post.id,
+                            post.title,
+                            post.content,
+                            post.version,
+                            post.modifiedAt))
+                    .from(post)
+                    .where(post.id.in(chunk))
+                    .fetch());
+        }
+        return details;
+    }
+
+    /**
+     * id 목록으로 조회한다. (IN_CHUNK_SIZE개씩 나눠서 IN 절로 조회)
+     * 순서는 보장하지 않고, 없는 글은 제외된다.
+     */
+    @Override
+    public List<PostResponse> getResponses(List<Long> ids) {
+        List<PostResponse> responses = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            responses.addAll(query
+                    .select(responseProjection())
+                    .from(post)
+                    .where(post.id.in(chunk))
+                    .fetch());
+        }
+        return responses;
+    }
+
+    /**
+     * id 목록 중 있는 글의 id만 조회한다. (IN_CHUNK_SIZE개씩, id만 읽는다.)
+     * 순서는 보장하지 않는다.
+     */
+    @Override
+    public List<Long> getExistingIds(List<Long> ids) {
+        List<Long> existing = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            existing.addAll(query
+                    .select(post.id)
+                    .from(post)
+                    .where(post.id.in(chunk))
+                    .fetch());
+        }
+        return existing;
+    }
+
+    /**
+     * 목록 전용 조회
+     * 엔티티 대신 DTO로 바로 조회하기 때문에
+     * -> @Lob content 전체를 읽지 않는다. (DB에서 앞부분만 잘라서 가져온다.)
+     * -> 영속성 컨텍스트에 등록되지 않고, 변경 감지용 스냅샷도 만들지 않는다.
+     *
+     * 압축된 글(ContentCodec)은 요약 길이만큼 풀 수 있을 정도의 앞부분만 가져와서 그 부분만 압축을 푼다.
+     */
+    @Override
+    public List<PostResponse> getSummaryList(PostSearch postSearch) {
+        return fetchPage(summaryQuery(), postSearch).stream()
+                .map(this::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * getList / getSummaryList와 같은 페이지를 List로 모으지 않고 한 건씩 읽는다.
+     * -> 트랜잭션 안에서 사용하고, 사용이 끝나면 반드시 close 해야 한다.
+     */
+    @Override
+    public Stream<PostResponse> streamList(PostSearch postSearch) {
+        if (postSearch.isSummary()) {
+            return streamPage(summaryQuery(), postSearch).map(this::toSummary);
+        }
+        return streamPage(query.select(responseProjection()).from(post), postSearch);
+    }
+
+    /**
+     * 글 1개의 버전 정보 (content는 읽지 않는다.)
+     * 글이 없으면 null
+     */
+    @Override
+    public PostVersion getVersion(Long id) {
+        return query
+                .select(versionProjection())
+                .from(post)
+                .where(post.id.eq(id))
+                .fetchOne();
+    }
+
+    /**
+     * getList와 같은 페이지의 버전 정보 (content는 읽지 않는다.)
+     */
+    @Override
+    public List<PostVersion> getVersionList(PostSearch postSearch) {
+        return fetchPage(query.select(versionProjection()).from(post), postSearch);
+    }
+
+    /**
+     * 여러 글을 JDBC batch insert로 저장한다.
+     * 트랜잭션 안에서 호출해야 한다.
+     * 반환되는 id 목록은 posts 순서와 같다.
+     */
+    @Override
+    public List<Long> saveAllInBatch(List<Post> posts) {
+        List<Long> ids = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            Post newPost = posts.get(i);
+            em.persist(newPost);
+            ids.add(newPost.getId());
+
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return ids;
+    }
+
+    /**
+     * 글 1개 부분 수정 - UPDATE 한 번으로 처리한다.
+     * 조회 없이 null이 아닌 필드만 수정하기 때문에 제목만 수정하면 content(LOB)는 읽지도, 쓰지도 않는다.
+     * expectedVersion이 있으면 버전이 같을 때만 수정한다. (낙관적 락)
+     *
+     * @return 수정된 row 수 (글이 없거나 버전이 다르면 0)
+     */
+    @Override
+    public long updatePost(Long id, String title, String content, Long expectedVersion) {
+        BooleanBuilder where = new BooleanBuilder(post.id.eq(id));
+        if (expectedVersion != null) {
+            where.and(post.version.eq(expectedVersion));
+        }
+        return execute(updateClause(title, content).where(where));
+    }
+
+    /**
+     * 글 여러개를 같은 값으로 수정한다. - UPDATE ... WHERE id IN (...) 한 번으로 처리한다.
+     *
+     * @return 수정된 row 수
+     */
+    @Override
+    public long updatePosts(List<Long> ids, String title, String content) {
+        return execute(updateClause(title, content).where(post.id.in(ids)));
+    }
+
+    /**
+     * 글 1개 삭제 - 조회 없이 DELETE 한 번으로 처리한다.
+     *
+     * @return 삭제된 row 수 (글이 없으면 0)
+     */
+    @Override
+    public long deletePost(Long id) {
+        return execute(query.delete(post).where(post.id.eq(id)));
+    }
+
+    /**
+     * 글 여러개 삭제 - DELETE ... WHERE id IN (...) 한 번으로 처리한다.
+     *
+     * @return 삭제된 row 수
+     */
+    @Override
+    public long deletePosts(List<Long> ids) {
+        return execute(query.delete(post).where(post.id.in(ids)));
+    }
+
+    /**
+     * fromId ~ toId 범위의 글 id를 afterId 다음부터 limit 개 조회한다. (id 오름차순)
+     * PK 인덱스만 읽는다. 범위 삭제시 일정한 크기로 나눠서 삭제할 때 사용한다.
+     */
+    @Override
+    public List<Long> getIdsInRange(Long fromId, Long toId, Long afterId, int limit) {
+        return query
+                .select(post.id)
+                .from(post)
+                .where(post.id.between(fromId, toId),
+                        afterId != null ? post.id.gt(afterId) : null)
+                .orderBy(post.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 전체 글을 id 순서대로 한 방향(forward-only)으로 읽는다.
+     * 결과를 List로 모으지 않고 fetch size 만큼씩 가져오기 때문에 글이 많아도 메모리를 일정하게 사용한다.
+     * -> 트랜잭션 안에서 사용하고, 사용이 끝나면 반드시 close 해야 한다.
+     * -> DTO로 조회하기 때문에 영속성 컨텍스트에 쌓이지 않는다. (detach 불필요)
+     */
+    @Override
+    public Stream<PostResponse> streamAll() {
+        return query
+                .select(responseProjection())
+                .from(post)
+                .orderBy(post.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .stream();
+    }
+
+    /**
+     * 벌크 UPDATE는 변경 감지를 거치지 않기 때문에 version, 수정 시간도 직접 변경한다.
+     */
+    private JPAUpdateClause updateClause(String title, String content) {
+        JPAUpdateClause update = query.update(post)
+                .set(post.version, post.version.add(1L))
+                .set(post.modifiedAt, Instant.now());
+
+        if (title != null) {
+            update.set(post.title, title);
+        }
+        if (content != null) {
+            update.set(post.content, content);
+        }
+        return update;
+    }
+
+    /**
+     * 벌크 UPDATE / DELETE는 영속성 컨텍스트를 거치지 않고 바로 DB에 실행된다.
+     * -> 실행 전에 flush 해서 아직 반영되지 않은 변경을 먼저 보낸다.
+     * -> 실행 후에 clear 해서 이전 값을 가진(혹은 삭제된) 엔티티가 다시 사용되지 않도록 한다. (@Modifying(clearAutomatically = true)와 같다.)
+     */
+    private long execute(DMLClause<?> clause) {
+        em.flush();
+        long affected = clause.execute();
+        em.clear();
+        return affected;
+    }
+
+    private JPAQuery<Tuple> summaryQuery() {
+        return query
+                .select(post.id, post.title, EXCERPT)
+                .from(post);
+    }
+
+    private PostResponse toSummary(Tuple tuple) {
+        return PostResponse.builder()
+                .id(tuple.get(post.id))
+                .title(tuple.get(post.title))
+                .content(ContentCodec.decodePrefix(tuple.get(EXCERPT), EXCERPT_LENGTH))
+                .build();
+    }
+
+    private ConstructorExpression<PostResponse> responseProjection() {
+        return Projections.constructor(PostResponse.class, post.id, post.title, post.content);
+    }
+
+    private ConstructorExpression<PostVersion> versionProjection() {
+        return Projections.constructor(PostVersion.class, post.id, post.version, post.modifiedAt);
+    }
+
+    /**
+     * 커서가 있으면 seek(where id < :cursor) 방식, 없으면 기존 offset 방식으로 조회한다.
+     * seek 방식은 PK 인덱스에서 바로 시작 위치를 찾기 때문에 페이지 깊이와 상관없이 속도가 일정하다.
+     */
+    private <T> List<T> fetchPage(JPAQuery<T> baseQuery, PostSearch postSearch) {
+        Long beforeId = postSearch.getBeforeId();
+        if (beforeId != null) {
+            // 커서 바로 앞의 글들을 오름차순으로 가져온 뒤 뒤집어서 id desc 정렬을 맞춘다.
+            List<T> result = new ArrayList<>(baseQuery
+                    .where(post.id.gt(beforeId))
+                    .limit(postSearch.getSize())
+                    .orderBy(post.id.asc())
+                    .fetch());
+            Collections.reverse(result);
+            return result;
+        }
+
+        return pageQuery(baseQuery, postSearch).fetch();
+    }
+
+    private <T> Stream<T> streamPage(JPAQuery<T> baseQuery, PostSearch postSearch) {
+        // 이전 페이지는 뒤집어야 하기 때문에 List로 조회한다. (한 페이지 크기만큼만 메모리에 올라간다.)
+        if (postSearch.getBeforeId() != null) {
+            return fetchPage(baseQuery, postSearch).stream();
+        }
+
+        return pageQuery(baseQuery, postSearch)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, LIST_FETCH_SIZE)
+                .stream();
+    }
+
+    /**
+     * 다음 페이지(after) 또는 offset 페이지 (id desc)
+     */
+    private <T> JPAQuery<T> pageQuery(JPAQuery<T> baseQuery, PostSearch postSearch) {
+        Long afterId = postSearch.getAfterId();
+        if (afterId != null) {
+            return baseQuery
+                    .where(post.id.lt(afterId))
+                    .limit(postSearch.getSize())
+                    .orderBy(post.id.desc());
+        }
+
+        return baseQuery
                 .limit(postSearch.getSize())
                 .offset(postSearch.getOffset())
-                .orderBy(post.id.desc())
-                .fetch();
+                .orderBy(post.id.desc());
     }
 
 }
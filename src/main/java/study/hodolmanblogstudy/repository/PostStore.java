@@ -0,0 +1,24 @@
+package study.hodolmanblogstudy.repository;
+
+import study.hodolmanblogstudy.domain.Post;
+
+/**
+ * PostService가 사용하는 글 저장소 (blog.storage.engine)
+ * - jpa: PostRepository (JPA + DB)
+ * - log: LogPostRepository (메모리 맵 append-only 로그)
+ *
+ * PostService가 실제로 사용하는 메서드만 둔다.
+ * -> 저장소마다 JpaRepository 전체(Example 조회, 임의 정렬 등)를 구현하지 않아도 된다.
+ * -> 새 메서드가 필요하면 여기에 추가하고 두 저장소 모두 구현한다.
+ */
+public interface PostStore extends PostRepositoryCustom {
+
+    /**
+     * 저장한 글 (저장소에 따라 인자로 넘긴 객체가 아닐 수 있기 때문에 돌려받은 객체를 사용한다.)
+     */
+    <S extends Post> S save(S post);
+
+    boolean existsById(Long id);
+
+    long count();
+}
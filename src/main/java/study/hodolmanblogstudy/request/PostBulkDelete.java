@@ -0,0 +1,48 @@
+package study.hodolmanblogstudy.request;
+
+import lombok.Builder;
+import lombok.Data;
+import study.hodolmanblogstudy.exception.InvalidRequest;
+
+import java.util.List;
+
+/**
+ * 글 여러개 삭제
+ * DELETE /posts?ids=1,2,3 -> id 목록으로 삭제
+ * DELETE /posts?from=100&to=200 -> id 범위로 삭제 (from, to 포함)
+ */
+@Data
+public class PostBulkDelete {
+
+    public static final int MAX_IDS = 10_000;
+
+    private List<Long> ids;
+
+    private Long from;
+
+    private Long to;
+
+    @Builder
+    public PostBulkDelete(List<Long> ids, Long from, Long to) {
+        this.ids = ids;
+        this.from = from;
+        this.to = to;
+    }
+
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public void validate() {
+        boolean hasRange = from != null || to != null;
+        if (hasIds() == hasRange) {
+            throw new InvalidRequest("ids", "삭제할 글의 id 목록이나 범위 중 하나를 입력해주세요.");
+        }
+        if (hasIds() && ids.size() > MAX_IDS) {
+            throw new InvalidRequest("ids", "한 번에 최대 " + MAX_IDS + "개까지 삭제할 수 있습니다.");
+        }
+        if (hasRange && (from == null || to == null || from > to)) {
+            throw new InvalidRequest("from", "잘못된 범위입니다.");
+        }
+    }
+}
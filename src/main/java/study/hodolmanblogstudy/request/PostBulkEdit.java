@@ -0,0 +1,45 @@
+package study.hodolmanblogstudy.request;
+
+import lombok.Builder;
+import lombok.Data;
+import study.hodolmanblogstudy.exception.InvalidRequest;
+
+import java.util.List;
+
+/**
+ * 글 여러개를 같은 값으로 한 번에 수정한다. (UPDATE ... WHERE id IN (...))
+ * null인 필드는 수정하지 않는다.
+ */
+@Data
+public class PostBulkEdit {
+
+    /**
+     * IN 절 파라미터 개수 제한 (DB마다 최대 개수가 다르기 때문에 작게 잡는다.)
+     */
+    public static final int MAX_IDS = 1000;
+
+    private List<Long> ids;
+
+    private String title;
+
+    private String content;
+
+    @Builder
+    public PostBulkEdit(List<Long> ids, String title, String content) {
+        this.ids = ids;
+        this.title = title;
+        this.content = content;
+    }
+
+    public void validate() {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequest("ids", "수정할 글을 선택해주세요.");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new InvalidRequest("ids", "한 번에 최대 " + MAX_IDS + "개까지 수정할 수 있습니다.");
+        }
+        if (title == null && content == null) {
+            throw new InvalidRequest("title", "수정할 제목이나 내용을 입력해주세요.");
+        }
+    }
+}
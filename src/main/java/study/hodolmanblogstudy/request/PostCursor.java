@@ -0,0 +1,41 @@
+package study.hodolmanblogstudy.request;
+
+import study.hodolmanblogstudy.exception.InvalidRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 커서 기반 페이징(keyset pagination)에서 사용하는 커서
+ * 클라이언트는 커서 내부 구조를 몰라도 된다. (opaque)
+ * -> 마지막으로 조회한 글의 id를 인코딩해서 전달한다.
+ * -> 나중에 정렬 기준이 바뀌더라도 클라이언트 변경 없이 커서 포맷만 바꾸면 된다.
+ */
+public final class PostCursor {
+
+    public static final String NEXT_HEADER = "X-Next-Cursor";
+    public static final String PREV_HEADER = "X-Prev-Cursor";
+
+    private static final String PREFIX = "post:";
+
+    private PostCursor() {
+    }
+
+    public static String encode(Long id) {
+        byte[] bytes = (PREFIX + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static Long decode(String fieldName, String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidRequest(fieldName, "잘못된 커서입니다.");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 도 IllegalArgumentException 이다.
+            throw new InvalidRequest(fieldName, "잘못된 커서입니다.");
+        }
+    }
+}
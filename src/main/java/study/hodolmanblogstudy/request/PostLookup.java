@@ -0,0 +1,39 @@
+package study.hodolmanblogstudy.request;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import study.hodolmanblogstudy.exception.InvalidRequest;
+
+import java.util.List;
+
+/**
+ * 글 여러개 조회 (id 목록)
+ * GET /posts?ids=1,2,3
+ * POST /posts/lookup {"ids": [1, 2, 3]} -> id가 많아서 URL이 너무 길어지는 경우
+ */
+@Data
+@NoArgsConstructor
+public class PostLookup {
+
+    public static final int MAX_IDS = 1_000;
+
+    private List<Long> ids;
+
+    @Builder
+    public PostLookup(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public void validate() {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequest("ids", "조회할 글의 id를 입력해주세요.");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new InvalidRequest("ids", "한 번에 최대 " + MAX_IDS + "개까지 조회할 수 있습니다.");
+        }
+        if (ids.contains(null)) {
+            throw new InvalidRequest("ids", "잘못된 id가 있습니다.");
+        }
+    }
+}
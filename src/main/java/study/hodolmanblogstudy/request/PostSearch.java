@@ -2,22 +2,86 @@ package study.hodolmanblogstudy.request;
 
 import lombok.Builder;
 import lombok.Data;
+import study.hodolmanblogstudy.exception.InvalidRequest;
 
 @Data
 public class PostSearch {
 
     private static final int MAX_SIZE = 2000;
 
+    /**
+     * 검색은 관련도 순서라서 offset을 DB에 넘길 수 없다. (인덱스에서 offset + size개를 모두 가져와서 앞부분을 버린다.)
+     * -> 검색 결과는 앞에서부터 MAX_SEARCH_DEPTH번째 글까지만 조회할 수 있다.
+     */
+    public static final int MAX_SEARCH_DEPTH = 2000;
+
     private Integer page = 1;
     private Integer size = 5;
 
+    /**
+     * 커서 기반 페이징 (keyset pagination)
+     * offset 방식은 page가 깊어질수록 DB가 offset 만큼의 row를 모두 읽고 버려야 한다.
+     * -> page=50000 같은 요청은 매우 느려진다.
+     * 커서가 있으면 offset 대신 where id < :cursor 로 바로 찾아간다. (page는 무시)
+     * after: 커서 이후(더 오래된 글)를 조회
+     * before: 커서 이전(더 최신 글)을 조회
+     */
+    private String after;
+    private String before;
+
+    /**
+     * 목록 화면에서는 글 전체 내용이 필요 없다.
+     * summary=true 이면 content 전체 대신 앞부분(요약)만 조회한다.
+     */
+    private boolean summary;
+
+    /**
+     * 검색어 (제목, 내용)
+     * 검색 결과는 최신순이 아니라 관련도 순서로 정렬된다. (page, size만 사용하고 커서는 무시)
+     */
+    private String query;
+
     @Builder
-    public PostSearch(Integer page, Integer size) {
-        this.page = page;
-        this.size = size;
+    public PostSearch(Integer page, Integer size, String after, String before, Boolean summary, String query) {
+        this.page = page != null ? page : 1;
+        this.size = size != null ? size : 5;
+        this.after = after;
+        this.before = before;
+        this.summary = summary != null && summary;
+        this.query = query;
     }
 
     public long getOffset() {
-        return (long) (Math.max(1, page) - 1) * Math.min(size, MAX_SIZE);
+        return (long) (Math.max(1, page) - 1) * getLimit();
+    }
+
+    /**
+     * 한 페이지 크기 (1 ~ MAX_SIZE)
+     */
+    public int getLimit() {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * 검색(query)할 때의 page, size 검증
+     */
+    public void validateSearch() {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidRequest("size", "size는 1 ~ " + MAX_SIZE + " 사이로 입력해주세요.");
+        }
+        if (page < 1) {
+            throw new InvalidRequest("page", "page는 1 이상으로 입력해주세요.");
+        }
+        if (getOffset() + getLimit() > MAX_SEARCH_DEPTH) {
+            throw new InvalidRequest("page", "검색 결과는 " + MAX_SEARCH_DEPTH + "번째 글까지만 조회할 수 있습니다.");
+        }
+    }
+
+    public Long getAfterId() {
+        return after != null ? PostCursor.decode("after", after) : null;
+    }
+
+    public Long getBeforeId() {
+        return before != null ? PostCursor.decode("before", before) : null;
     }
 }
@@ -0,0 +1,31 @@
+package study.hodolmanblogstudy.resposne;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 캐시 통계 응답
+ */
+@Getter
+public class CacheStatsResponse {
+
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final long evictionCount;
+    private final long evictionWeight;
+    private final long entryCount;
+    private final long weightedSize;
+
+    @Builder
+    public CacheStatsResponse(long hitCount, long missCount, double hitRate, long evictionCount,
+                              long evictionWeight, long entryCount, long weightedSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.entryCount = entryCount;
+        this.weightedSize = weightedSize;
+    }
+}
@@ -0,0 +1,31 @@
+package study.hodolmanblogstudy.resposne;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 글 여러개 등록 응답
+ * {
+ *     "ids": [1, null, 2],
+ *     "errors": {
+ *         "1": { "title": "제목을 입력해주세요." }
+ *     }
+ * }
+ * ids: 요청 순서와 같다. 검증에 실패한 글은 null
+ * errors: 검증에 실패한 글의 index -> 필드별 에러 메시지
+ */
+@Getter
+public class PostBatchResponse {
+
+    private final List<Long> ids;
+    private final Map<Integer, Map<String, String>> errors;
+
+    @Builder
+    public PostBatchResponse(List<Long> ids, Map<Integer, Map<String, String>> errors) {
+        this.ids = ids;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,57 @@
+package study.hodolmanblogstudy.resposne;
+
+import lombok.Builder;
+import lombok.Getter;
+import study.hodolmanblogstudy.cache.CachedPost;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 글 여러개 조회 응답
+ * {
+ *     "posts": [{"id": 3, ...}, {"id": 1, ...}],
+ *     "missingIds": [2]
+ * }
+ * posts: 요청한 id 순서와 같다. 없는 글은 빠진다.
+ * missingIds: 없는 글의 id (요청 순서, 중복 제외)
+ *
+ * 글은 캐시된 JSON bytes(CachedPost)를 그대로 이어 붙여서 응답한다. (글마다 Jackson 직렬화를 하지 않는다.)
+ */
+@Getter
+public class PostLookupResponse {
+
+    private static final byte[] POSTS_START = "{\"posts\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MISSING_IDS_START = "],\"missingIds\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<CachedPost> posts;
+    private final List<Long> missingIds;
+
+    @Builder
+    public PostLookupResponse(List<CachedPost> posts, List<Long> missingIds) {
+        this.posts = posts;
+        this.missingIds = missingIds;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(POSTS_START);
+        for (int i = 0; i < posts.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(posts.get(i).getJson());
+        }
+
+        out.write(MISSING_IDS_START);
+        for (int i = 0; i < missingIds.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(missingIds.get(i).toString().getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(END);
+    }
+}
@@ -0,0 +1,212 @@
+package study.hodolmanblogstudy.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 글 검색용 역색인(inverted index)
+ * content는 @Lob 이기 때문에 SQL LIKE '%검색어%'로 찾으면 테이블 전체를 읽어야 한다.
+ * Lucene 인덱스에 제목/내용을 형태소 단위로 색인하고, 검색 결과로 관련도 순서의 글 id를 돌려준다.
+ *
+ * -> 한국어는 띄어쓰기 단위로 자르면 "블로그에서", "블로그를" 이 서로 다른 단어가 된다.
+ *    Nori 형태소 분석기(KoreanAnalyzer)로 조사를 떼어내고 색인한다.
+ * -> 디스크 인덱스는 MMapDirectory를 사용한다. (OS 페이지 캐시를 그대로 사용)
+ * -> 변경 사항은 바로 검색에 반영되지 않고 commit-interval 주기로 반영된다. (near real-time)
+ */
+@Slf4j
+@Component
+public class PostSearchIndex implements DisposableBean {
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+
+    /**
+     * 제목에 검색어가 있는 글을 더 위로 올린다.
+     */
+    private static final float TITLE_BOOST = 2.0f;
+
+    /**
+     * 검색어를 형태소로 나눴을 때 사용할 최대 개수
+     */
+    private static final int MAX_QUERY_TERMS = 32;
+
+    private final Analyzer analyzer = new KoreanAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public PostSearchIndex(@Value("${blog.search.index-path:}") String indexPath) throws IOException {
+        this.directory = StringUtils.hasText(indexPath)
+                ? new MMapDirectory(Path.of(indexPath))
+                : new ByteBuffersDirectory();
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void index(Long id, String title, String content) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        document.add(new TextField(TITLE, title != null ? title : "", Field.Store.NO));
+        document.add(new TextField(CONTENT, content != null ? content : "", Field.Store.NO));
+
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(id)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 여러 글을 한 번에 삭제한다.
+     */
+    public void delete(List<Long> ids) {
+        Term[] terms = ids.stream()
+                .map(id -> new Term(ID, String.valueOf(id)))
+                .toArray(Term[]::new);
+        try {
+            writer.deleteDocuments(terms);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 관련도 순서로 정렬된 글 id
+     */
+    public List<Long> search(String queryText, int offset, int limit) {
+        Query query = buildQuery(queryText);
+        if (query == null) {
+            return List.of();
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, Math.max(1, offset + limit));
+                StoredFields storedFields = searcher.storedFields();
+
+                List<Long> ids = new ArrayList<>();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    Document document = storedFields.document(scoreDocs[i].doc, Set.of(ID));
+                    ids.add(Long.parseLong(document.get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 변경 사항을 바로 검색에 반영한다.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 글을 쓸 때마다 commit(fsync)하면 쓰기가 느려지기 때문에 주기적으로 모아서 반영한다.
+     * commit 전에 서버가 죽으면 마지막 주기의 변경 사항은 유실될 수 있다. -> 인덱스 재생성으로 복구
+     */
+    @Scheduled(fixedDelayString = "${blog.search.commit-interval:5000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("검색 인덱스 반영에 실패했습니다.", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * 검색어를 색인과 같은 형태소 분석기로 나눈 뒤 제목/내용 중 하나라도 포함하는 글을 찾는다. (OR)
+     */
+    private Query buildQuery(String queryText) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int terms = 0;
+
+        try (TokenStream tokenStream = analyzer.tokenStream(CONTENT, queryText)) {
+            CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken() && terms < MAX_QUERY_TERMS) {
+                String term = termAttribute.toString();
+                builder.add(new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD);
+                builder.add(new TermQuery(new Term(CONTENT, term)), BooleanClause.Occur.SHOULD);
+                terms++;
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return terms > 0 ? builder.build() : null;
+    }
+}
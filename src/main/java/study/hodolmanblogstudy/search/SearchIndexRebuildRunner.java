@@ -0,0 +1,34 @@
+package study.hodolmanblogstudy.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import study.hodolmanblogstudy.service.PostService;
+
+/**
+ * 검색 인덱스 재생성 명령
+ * DB의 전체 글로 검색 인덱스를 다시 만든다. (인덱스 유실, 형태소 분석기 변경 등)
+ * java -jar app.jar --rebuild-search-index
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class SearchIndexRebuildRunner implements ApplicationRunner {
+
+    public static final String OPTION = "rebuild-search-index";
+
+    private final PostService postService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long count = postService.rebuildSearchIndex();
+        log.info("검색 인덱스 재생성 완료: {}건, {}ms", count, System.currentTimeMillis() - start);
+    }
+}
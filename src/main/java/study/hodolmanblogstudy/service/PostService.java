@@ -1,32 +1,107 @@
 package study.hodolmanblogstudy.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import study.hodolmanblogstudy.cache.CachedPost;
+import study.hodolmanblogstudy.cache.CachedPage;
+import study.hodolmanblogstudy.cache.PostCache;
+import study.hodolmanblogstudy.cache.PostPageCache;
+import study.hodolmanblogstudy.counter.PostCounter;
+import study.hodolmanblogstudy.datasource.ReplicaRoutingDataSource;
 import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.domain.PostDetail;
 import study.hodolmanblogstudy.domain.PostEditor;
+import study.hodolmanblogstudy.domain.PostVersion;
+import study.hodolmanblogstudy.exception.InvalidRequest;
 import study.hodolmanblogstudy.exception.PostNotFound;
-import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.exception.PostPreconditionFailed;
+import study.hodolmanblogstudy.moderation.BannedWordFilter;
+import study.hodolmanblogstudy.repository.PostStore;
+import study.hodolmanblogstudy.request.PostBulkDelete;
+import study.hodolmanblogstudy.request.PostBulkEdit;
 import study.hodolmanblogstudy.request.PostCreate;
 import study.hodolmanblogstudy.request.PostEdit;
+import study.hodolmanblogstudy.request.PostLookup;
 import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostBatchResponse;
+import study.hodolmanblogstudy.resposne.PostLookupResponse;
 import study.hodolmanblogstudy.resposne.PostResponse;
+import study.hodolmanblogstudy.search.PostSearchIndex;
+import study.hodolmanblogstudy.writer.PostWriteBuffer;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * 모든 public 메서드의 실행 시간을 post.service 타이머로 측정한다. (method 태그로 구분)
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Timed(value = "post.service", histogram = true)
 public class PostService {
 
-    private final PostRepository postRepository;
+    /**
+     * 글 여러개 등록시 한 번에 받을 수 있는 최대 개수
+     */
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * 글 여러개 삭제시 DELETE 한 번에 포함하는 최대 id 수
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final PostStore postStore;
+    private final PostCache postCache;
+    private final PostPageCache postPageCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCounter postCounter;
+    private final PostWriteBuffer postWriteBuffer;
+    private final PlatformTransactionManager transactionManager;
+    private final BannedWordFilter bannedWordFilter;
 
     public Long write(PostCreate postCreate) {
+        // 쓰기 지연 모드에서는 다른 글 등록 요청과 모아서 한 번에 커밋한다. (PostWriteBuffer)
+        // 호출한 쪽의 트랜잭션이 있으면 함께 롤백되어야 하기 때문에 바로 저장한다.
+        if (postWriteBuffer.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return postWriteBuffer.write(postCreate.getTitle(), postCreate.getContent());
+        }
+
         // postCreate -> Entity
 
 //        Post post = new Post(postCreate.getTitle(), postCreate.getContent());
@@ -35,29 +110,196 @@ public class PostService {
                 .content(postCreate.getContent())
                 .build();
 
-        return postRepository.save(post).getId();
+        Post savedPost = postStore.save(post);
+        // 등록 전에 이 id를 조회해서 없는 글로 캐싱된 경우
+        postCache.evict(savedPost.getId());
+        postPageCache.invalidate();
+        indexAfterCommit(savedPost.getId(), savedPost.getTitle(), savedPost.getContent());
+        runAfterCommit(() -> postCounter.add(1));
+
+        return savedPost.getId();
+    }
+
+    /**
+     * 글 여러개 등록
+     * 모든 글을 검증한 뒤, 검증에 통과한 글만 JDBC batch insert로 저장한다.
+     * 일부 글이 검증에 실패해도 나머지 글은 저장된다.
+     */
+    @Transactional
+    public PostBatchResponse writeAll(List<PostCreate> postCreates) {
+        if (postCreates.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequest("posts", "한 번에 최대 " + MAX_BATCH_SIZE + "개까지 등록할 수 있습니다.");
+        }
+
+        Map<Integer, Map<String, String>> errors = new LinkedHashMap<>();
+        List<Post> posts = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        for (int i = 0; i < postCreates.size(); i++) {
+            PostCreate postCreate = postCreates.get(i);
+            Map<String, String> validation = validate(postCreate);
+            if (!validation.isEmpty()) {
+                errors.put(i, validation);
+                continue;
+            }
+
+            posts.add(Post.builder()
+                    .title(postCreate.getTitle())
+                    .content(postCreate.getContent())
+                    .build());
+            indexes.add(i);
+        }
+
+        List<Long> savedIds = postStore.saveAllInBatch(posts);
+        postCache.evictAll(savedIds);
+        postPageCache.invalidate();
+        runAfterCommit(() -> postCounter.add(posts.size()));
+        // 저장소에 따라 엔티티에 id가 채워지지 않을 수 있기 때문에 (LogPostRepository) 돌려받은 id를 사용한다.
+        runAfterCommit(() -> {
+            for (int i = 0; i < posts.size(); i++) {
+                postSearchIndex.index(savedIds.get(i), posts.get(i).getTitle(), posts.get(i).getContent());
+            }
+        });
+
+        // 요청 순서대로 id를 돌려준다. (검증 실패한 글은 null)
+        Long[] ids = new Long[postCreates.size()];
+        for (int i = 0; i < savedIds.size(); i++) {
+            ids[indexes.get(i)] = savedIds.get(i);
+        }
+
+        return PostBatchResponse.builder()
+                .ids(Arrays.asList(ids))
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * @Valid 와 같은 Bean Validation 검증 + PostCreate.validate() 정책 검증 (금지어)
+     */
+    private Map<String, String> validate(PostCreate postCreate) {
+        Map<String, String> validation = new HashMap<>();
+        if (postCreate == null) {
+            validation.put("post", "글 정보를 입력해주세요.");
+            return validation;
+        }
+
+        for (ConstraintViolation<PostCreate> violation : validator.validate(postCreate)) {
+            validation.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+
+        if (validation.isEmpty()) {
+            try {
+                postCreate.validate(bannedWordFilter);
+            } catch (InvalidRequest e) {
+                validation.putAll(e.getValidation());
+            }
+        }
+        return validation;
     }
 
+    @Transactional(readOnly = true)
     public PostResponse get(Long id) {
 //        Post post = postRepository.findById(id)
 //                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 글입니다."));
 
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+//        Post post = postRepository.findById(id)
+//                .orElseThrow(PostNotFound::new);
+
+        // content는 지연 로딩이기 때문에 엔티티 대신 DTO로 한 번에 조회한다.
+        PostDetail post = postStore.getDetail(id);
+        if (post == null) {
+            throw new PostNotFound();
+        }
 
         // response로 변환하는 작업을 service에서 하는 것이 맞을까?
         // PostController -> WebPostService -> Repository
         //                -> PostService
-        PostResponse response = PostResponse.builder()
-                .id(post.getId())
-                .title(post.getTitle())
-                .content(post.getContent())
-                .build();
+        PostResponse response = post.toResponse();
 
 
         return response;
     }
 
+    /**
+     * 글 1개 조회 - 직렬화된 JSON bytes + ETag, Last-Modified
+     * 캐시에 있으면 DB 조회와 직렬화 없이 바로 반환한다.
+     */
+    public CachedPost getCached(Long id) {
+        return postCache.get(id, key -> loadForCache(() -> load(key)));
+    }
+
+    public boolean isCached(Long id) {
+        return postCache.contains(id);
+    }
+
+    /**
+     * 글 여러개 조회 (GET /posts/{postId}를 여러 번 호출하는 대신)
+     * 캐시에 있는 글은 캐시에서, 나머지는 한 번에 IN 절로 조회해서 캐싱한다.
+     * 없는 글이 있어도 실패하지 않고 missingIds로 알려준다.
+     */
+    public PostLookupResponse lookup(PostLookup postLookup) {
+        postLookup.validate();
+
+        List<Long> ids = postLookup.getIds();
+        Map<Long, CachedPost> cached = postCache.getAll(ids, misses -> loadForCache(() -> loadAll(misses)));
+
+        List<CachedPost> posts = new ArrayList<>(ids.size());
+        LinkedHashSet<Long> missingIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            CachedPost post = cached.get(id);
+            if (post != null) {
+                posts.add(post);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return PostLookupResponse.builder()
+                .posts(posts)
+                .missingIds(List.copyOf(missingIds))
+                .build();
+    }
+
+    /**
+     * 글 1개의 버전 정보
+     * content(LOB)를 읽지 않기 때문에 캐시에 없는 글의 조건부 GET을 싸게 판단할 수 있다.
+     */
+    @Transactional(readOnly = true)
+    public PostVersion getVersion(Long id) {
+        PostVersion version = postStore.getVersion(id);
+        if (version == null) {
+            throw new PostNotFound();
+        }
+        return version;
+    }
+
+    /**
+     * 글 목록(getList)과 같은 페이지의 버전 정보
+     * 검색어가 있는 경우는 목록이 검색 인덱스로 결정되기 때문에 지원하지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public List<PostVersion> getVersionList(PostSearch postSearch) {
+        return postStore.getVersionList(postSearch);
+    }
+
+    /**
+     * 내용과 버전을 한 번의 쿼리로 조회한다. (따로 조회하면 그 사이에 수정된 경우 ETag가 내용과 맞지 않을 수 있다.)
+     */
+    private CachedPost load(Long id) {
+        PostDetail post = postStore.getDetail(id);
+        if (post == null) {
+            throw new PostNotFound();
+        }
+
+        return postCache.toEntry(post.toResponse(), post.toVersion());
+    }
+
+    private Map<Long, CachedPost> loadAll(List<Long> ids) {
+        return postStore.getDetails(ids).stream()
+                .collect(Collectors.toMap(PostDetail::getId,
+                        post -> postCache.toEntry(post.toResponse(), post.toVersion())));
+    }
+
     /**
      * 컬럼이 많아지면 보기 힘들어진다.
      */
@@ -77,44 +319,386 @@ public class PostService {
 //                .map(PostResponse::new)
 //                .collect(Collectors.toList());
 //    }
+    @Transactional(readOnly = true)
     public List<PostResponse> getList(PostSearch postSearch) {
-        return postRepository.getList(postSearch).stream()
-                .map(PostResponse::new)
+        if (StringUtils.hasText(postSearch.getQuery())) {
+            return search(postSearch);
+        }
+
+        if (postSearch.isSummary()) {
+            return postStore.getSummaryList(postSearch);
+        }
+
+        return postStore.getList(postSearch);
+    }
+
+    /**
+     * 글 목록 앞 페이지 캐시 (PostPageCache)
+     * 캐싱하지 않는 요청(커서, 검색어, 뒤 페이지 등)이면 null
+     */
+    public CachedPage getCachedPage(PostSearch postSearch) {
+        if (!postPageCache.isCacheable(postSearch)) {
+            return null;
+        }
+        return postPageCache.get(postSearch, () -> loadForCache(() -> loadPage(postSearch)));
+    }
+
+    /**
+     * 버전을 먼저 조회하고 목록을 조회한다.
+     * 그 사이에 글이 수정되면 ETag(버전)가 이전 값이 되어 다음 요청에서 한 번 더 200으로 응답할 뿐,
+     * 이전 내용이 새 ETag로 캐싱되지는 않는다. (그 페이지도 커밋 후 세대가 바뀌면서 버려진다.)
+     */
+    private CachedPage loadPage(PostSearch postSearch) {
+        List<PostVersion> versions = postStore.getVersionList(postSearch);
+        List<PostResponse> posts = postSearch.isSummary()
+                ? postStore.getSummaryList(postSearch)
+                : postStore.getList(postSearch);
+
+        try {
+            return new CachedPage(objectMapper.writeValueAsString(posts), versions);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * getList와 같은 목록을 JSON 배열로 generator에 바로 쓴다.
+     * 목록을 List로 모으지 않고 DB에서 한 건 읽을 때마다 바로 직렬화하기 때문에
+     * 한 페이지가 커져도(size 최대 2000) 응답 하나가 메모리에 올리는 글은 한 건뿐이다.
+     * -> 검색 결과는 관련도 순서로 다시 정렬해야 하기 때문에 기존처럼 List로 조회한다. (검색 결과 크기만큼)
+     * 응답을 다 쓸 때까지 트랜잭션(커넥션)을 사용한다.
+     */
+    @Transactional(readOnly = true)
+    public void writeList(PostSearch postSearch, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        try (Stream<PostResponse> posts = StringUtils.hasText(postSearch.getQuery())
+                ? search(postSearch).stream()
+                : postStore.streamList(postSearch)) {
+            Iterator<PostResponse> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * 글 목록 + 페이지 정보 (GET /posts?paged=true)
+     * {
+     *     "items": [...],
+     *     "page": 1,
+     *     "size": 10,
+     *     "totalCount": 123,
+     *     "totalPages": 13
+     * }
+     * totalCount, totalPages는 PostCounter 값이다. (실시간 COUNT(*)가 아니므로 잠시 실제 값과 다를 수 있다.)
+     * 검색어(query)가 있는 경우에는 null
+     * cachedPage가 있으면 목록을 다시 조회하지 않고 캐시된 JSON을 그대로 쓴다.
+     */
+    @Transactional(readOnly = true)
+    public void writePage(PostSearch postSearch, Long totalCount, CachedPage cachedPage,
+                          JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("items");
+        if (cachedPage != null) {
+            generator.writeRawValue(cachedPage.getJson());
+        } else {
+            writeList(postSearch, generator);
+        }
+        generator.writeNumberField("page", postSearch.getPage());
+        generator.writeNumberField("size", postSearch.getSize());
+
+        if (totalCount != null) {
+            long pageSize = Math.max(postSearch.getSize(), 1);
+            generator.writeNumberField("totalCount", totalCount);
+            generator.writeNumberField("totalPages", (totalCount + pageSize - 1) / pageSize);
+        } else {
+            generator.writeNullField("totalCount");
+            generator.writeNullField("totalPages");
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * 전체 글 수 (PostCounter)
+     * COUNT(*)를 실행하지 않는다. 오차 범위는 PostCounter 참고
+     */
+    public long getTotalCount() {
+        return postCounter.get();
+    }
+
+    /**
+     * 검색어가 포함된 글 목록 (관련도 순서)
+     * 검색 인덱스에서 id만 찾고, 글은 PK(IN 절)로 한 번에 조회한다.
+     * 검색 깊이(offset + size)는 PostSearch.MAX_SEARCH_DEPTH까지만 허용한다.
+     */
+    private List<PostResponse> search(PostSearch postSearch) {
+        postSearch.validateSearch();
+        List<Long> ids = searchExistingIds(postSearch.getQuery(),
+                (int) postSearch.getOffset(), postSearch.getLimit());
+
+        Map<Long, PostResponse> posts = postStore.getResponses(ids).stream()
+                .collect(Collectors.toMap(PostResponse::getId, Function.identity()));
+
+        // 확인한 뒤에 삭제된 글은 제외한다.
+        return ids.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
-    public void edit(Long id, PostEdit postEdit) {
-//        Post post = postRepository.findById(id)
-//                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 글입니다."));
+    /**
+     * 관련도 순서로 offset번째부터 size개의 글 id
+     * 인덱스에는 있지만 DB에서 삭제된 글(인덱스에 아직 반영되지 않은 삭제)은 페이지를 자르기 전에 제외한다. -> 페이지가 짧아지지 않는다.
+     * 인덱스에서 offset + size개를 가져와서 DB에 있는 id만 남기고, 모자라면 모자란 만큼 인덱스에서 더 가져온다.
+     */
+    private List<Long> searchExistingIds(String query, int offset, int size) {
+        int wanted = offset + size;
+        List<Long> existing = new ArrayList<>();
+        int from = 0;
+        while (existing.size() < wanted) {
+            int limit = wanted - existing.size();
+            List<Long> ids = postSearchIndex.search(query, from, limit);
+            if (ids.isEmpty()) {
+                break;
+            }
 
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+            Set<Long> found = new HashSet<>(postStore.getExistingIds(ids));
+            ids.stream()
+                    .filter(found::contains)
+                    .forEach(existing::add);
 
-//        post.changePost(postEdit.getTitle(), postEdit.getContent());
+            if (ids.size() < limit) {
+                break;
+            }
+            from += limit;
+        }
+        return existing.subList(Math.min(offset, existing.size()), existing.size());
+    }
 
-//        PostEditor.PostEditorBuilder editor = post.toEditor();
-//        PostEditor postEditor = editor
-//                .title(postEdit.getTitle())
-//                .content(postEdit.getContent())
-//                .build();
+    /**
+     * DB의 전체 글로 검색 인덱스를 다시 만든다.
+     */
+    @Transactional(readOnly = true)
+    public long rebuildSearchIndex() {
+        long count = 0;
+        postSearchIndex.deleteAll();
+
+        try (Stream<PostResponse> posts = postStore.streamAll()) {
+            Iterator<PostResponse> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                PostResponse post = iterator.next();
+                postSearchIndex.index(post.getId(), post.getTitle(), post.getContent());
+                count++;
+            }
+        }
+
+        postSearchIndex.commit();
+        postSearchIndex.refresh();
+        return count;
+    }
+
+    /**
+     * 전체 글 내보내기 (NDJSON: 한 줄에 글 1개)
+     * 백업, 검색 인덱스 재생성 등에서 사용한다.
+     * 하나의 읽기 전용 트랜잭션에서 읽기 때문에 내보내는 동안 일관된 스냅샷을 본다.
+     * DTO로 한 건씩 읽어서 바로 쓰기 때문에 글이 많아도 메모리 사용량이 일정하다.
+     */
+    @Transactional(readOnly = true)
+    public void export(OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream);
+
+        try (Stream<PostResponse> posts = postStore.streamAll()) {
+            Iterator<PostResponse> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    @Transactional
+    public void edit(Long id, PostEdit postEdit) {
+        edit(id, postEdit, null);
+    }
+
+    /**
+     * 글 수정
+     * 글을 조회하지 않고 UPDATE 한 번으로 보낸 필드만 수정한다.
+     * -> 제목만 수정하는 경우 content(LOB)를 읽지도, 다시 쓰지도 않는다.
+     * expectedVersion(If-Match)이 있으면 버전이 같은 경우에만 수정한다.
+     */
+    @Transactional
+    public void edit(Long id, PostEdit postEdit, Long expectedVersion) {
+//        Post post = postRepository.findById(id)
+//                .orElseThrow(PostNotFound::new);
 
         /**
          * 클라이언트 요구사항
          * 내용만 수정하려고 하는데 제목은 null로 보낼테니 그대로 유지시켜줘.
          * 혹은 제목만 수정하려고 하는데 내용은 null로 보낼테니 그대로 유지시켜줘.
+         * -> null인 필드는 UPDATE의 SET 절에서 빠진다.
          */
-        post.changePost(
-                postEdit.getTitle() != null ? postEdit.getTitle() : post.getTitle(),
-                postEdit.getContent() != null ? postEdit.getContent() : post.getContent());
+        bannedWordFilter.validate(postEdit.getTitle(), postEdit.getContent());
+
+        long updated = postStore.updatePost(id, postEdit.getTitle(), postEdit.getContent(), expectedVersion);
+        if (updated == 0) {
+            // 수정 실패시에만 한 번 더 조회해서 원인을 구분한다.
+            if (expectedVersion != null && postStore.existsById(id)) {
+                throw new PostPreconditionFailed();
+            }
+            throw new PostNotFound();
+        }
+
+        postCache.evict(id);
+        postPageCache.invalidate();
+        if (postEdit.getTitle() != null && postEdit.getContent() != null) {
+            indexAfterCommit(id, postEdit.getTitle(), postEdit.getContent());
+        } else {
+            reindexAfterCommit(List.of(id));
+        }
+    }
+
+    /**
+     * 글 여러개를 같은 값으로 수정한다. (UPDATE 한 번)
+     *
+     * @return 수정된 글 수 (존재하지 않는 id는 제외된다.)
+     */
+    @Transactional
+    public long editAll(PostBulkEdit postBulkEdit) {
+        postBulkEdit.validate();
+        bannedWordFilter.validate(postBulkEdit.getTitle(), postBulkEdit.getContent());
+
+        List<Long> ids = postBulkEdit.getIds();
+        long updated = postStore.updatePosts(ids, postBulkEdit.getTitle(), postBulkEdit.getContent());
+
+        postCache.evictAll(ids);
+        postPageCache.invalidate();
+        reindexAfterCommit(ids);
+        return updated;
     }
 
+    /**
+     * 글 삭제 - 조회 없이 DELETE 한 번으로 처리한다.
+     * 삭제된 row가 없으면 존재하지 않는 글이다.
+     */
+    @Transactional
     public void delete(Long id) {
 //        Post post = postRepository.findById(id)
 //                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 글입니다."));
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+//        Post post = postRepository.findById(id)
+//                .orElseThrow(PostNotFound::new);
+//        postRepository.deleteById(post.getId());
+
+        if (postStore.deletePost(id) == 0) {
+            throw new PostNotFound();
+        }
+
+        postCache.evict(id);
+        postPageCache.invalidate();
+        runAfterCommit(() -> postSearchIndex.delete(id));
+        runAfterCommit(() -> postCounter.add(-1));
+    }
+
+    /**
+     * 글 여러개 삭제 (id 목록 또는 id 범위)
+     * DELETE_CHUNK_SIZE 개씩 나눠서 DELETE ... WHERE id IN (...) 로 삭제한다.
+     * 범위 삭제는 PK 인덱스로 id만 조회해서 나눈다. (캐시, 검색 인덱스에서도 지워야 하기 때문에 id가 필요하다.)
+     *
+     * @return 삭제된 글 수 (존재하지 않는 id는 제외된다.)
+     */
+    @Transactional
+    public long deleteAll(PostBulkDelete postBulkDelete) {
+        postBulkDelete.validate();
+
+        long deleted = 0;
+        if (postBulkDelete.hasIds()) {
+            List<Long> ids = postBulkDelete.getIds();
+            for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+                deleted += deleteChunk(List.copyOf(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()))));
+            }
+            return deleted;
+        }
+
+        Long afterId = null;
+        while (true) {
+            List<Long> ids = postStore.getIdsInRange(
+                    postBulkDelete.getFrom(), postBulkDelete.getTo(), afterId, DELETE_CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+
+            deleted += deleteChunk(ids);
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private long deleteChunk(List<Long> ids) {
+        long deleted = postStore.deletePosts(ids);
+        postCache.evictAll(ids);
+        postPageCache.invalidate();
+        runAfterCommit(() -> postSearchIndex.delete(ids));
+        runAfterCommit(() -> postCounter.add(-deleted));
+        return deleted;
+    }
+
+    private void indexAfterCommit(Long id, String title, String content) {
+        runAfterCommit(() -> postSearchIndex.index(id, title, content));
+    }
+
+    /**
+     * 수정된 글을 커밋 후에 조회해서 다시 색인한다.
+     * 검색 인덱스는 글 전체(제목 + 내용)로 문서를 다시 만들어야 하기 때문에
+     * 일부 필드만 수정한 경우에는 나머지 필드를 DB에서 읽어야 한다.
+     */
+    private void reindexAfterCommit(List<Long> ids) {
+        runAfterCommit(() -> postStore.getResponses(ids)
+                .forEach(post -> postSearchIndex.index(post.getId(), post.getTitle(), post.getContent())));
+    }
+
+    /**
+     * 캐시에 없는 글/페이지를 주 DB에서 읽기 전용 트랜잭션으로 조회한다.
+     * 찾은 글은 수정될 때까지, 페이지는 다음 쓰기까지 캐시에 남는다.
+     * -> 복제 DB에서 읽으면 복제 지연된 값이 모든 클라이언트에게 계속 보이기 때문에 주 DB에서 읽는다. (ReplicaRoutingDataSource.onPrimary)
+     */
+    private <T> T loadForCache(Supplier<T> supplier) {
+        return ReplicaRoutingDataSource.onPrimary(() -> readOnly(supplier));
+    }
+
+    /**
+     * 조회할 때만 읽기 전용 트랜잭션을 시작한다.
+     * 메서드 전체에 @Transactional을 붙이면 캐시 적중시에도 트랜잭션을 시작하기 때문이다.
+     */
+    private <T> T readOnly(Supplier<T> supplier) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> supplier.get());
+    }
+
+    /**
+     * 트랜잭션이 커밋된 뒤에 실행한다. (롤백된 글이 검색 인덱스 등에 반영되지 않도록)
+     * 트랜잭션 밖에서 호출되면 바로 실행한다.
+     * 부가 작업이 실패해도 이미 커밋된 요청은 실패로 응답하지 않는다.
+     */
+    private void runAfterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("커밋 후 작업에 실패했습니다.", e);
+            }
+        };
 
-        postRepository.deleteById(post.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safeAction.run();
+                }
+            });
+        } else {
+            safeAction.run();
+        }
     }
 }
@@ -0,0 +1,86 @@
+package study.hodolmanblogstudy.startup;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.tool.schema.internal.HibernateSchemaManagementTool;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaCreator;
+import org.hibernate.tool.schema.spi.SchemaDropper;
+import org.hibernate.tool.schema.spi.SchemaMigrator;
+import org.hibernate.tool.schema.spi.SchemaValidator;
+import org.hibernate.tool.schema.spi.SourceDescriptor;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.Map;
+
+/**
+ * Hibernate 스키마 작업(ddl-auto)을 시작 단계로 기록한다. (blog.hibernate.schema.drop / create / migrate / validate)
+ * 스키마 작업은 entityManagerFactory 빈 생성 안에서 실행되기 때문에 따로 기록하지 않으면 구분할 수 없다.
+ *
+ * 작업 자체는 기본 도구(HibernateSchemaManagementTool)가 그대로 실행한다. (StartupConfig에서 등록)
+ */
+public class RecordingSchemaManagementTool extends HibernateSchemaManagementTool {
+
+    public static final String STEP_PREFIX = "blog.hibernate.schema.";
+
+    private final ApplicationStartup applicationStartup;
+
+    public RecordingSchemaManagementTool(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @Override
+    public SchemaCreator getSchemaCreator(Map<String, Object> options) {
+        SchemaCreator creator = super.getSchemaCreator(options);
+        return (metadata, executionOptions, inclusionFilter, sourceDescriptor, targetDescriptor) ->
+                record("create", () -> creator.doCreation(metadata, executionOptions, inclusionFilter,
+                        sourceDescriptor, targetDescriptor));
+    }
+
+    @Override
+    public SchemaDropper getSchemaDropper(Map<String, Object> options) {
+        SchemaDropper dropper = super.getSchemaDropper(options);
+        return new SchemaDropper() {
+            @Override
+            public void doDrop(Metadata metadata, ExecutionOptions executionOptions, ContributableMatcher inclusionFilter,
+                               SourceDescriptor sourceDescriptor, TargetDescriptor targetDescriptor) {
+                record("drop", () -> dropper.doDrop(metadata, executionOptions, inclusionFilter,
+                        sourceDescriptor, targetDescriptor));
+            }
+
+            @Override
+            public DelayedDropAction buildDelayedAction(Metadata metadata, ExecutionOptions executionOptions,
+                                                        ContributableMatcher inclusionFilter,
+                                                        SourceDescriptor sourceDescriptor) {
+                return dropper.buildDelayedAction(metadata, executionOptions, inclusionFilter, sourceDescriptor);
+            }
+        };
+    }
+
+    @Override
+    public SchemaMigrator getSchemaMigrator(Map<String, Object> options) {
+        SchemaMigrator migrator = super.getSchemaMigrator(options);
+        return (metadata, executionOptions, inclusionFilter, targetDescriptor) ->
+                record("migrate", () -> migrator.doMigration(metadata, executionOptions, inclusionFilter,
+                        targetDescriptor));
+    }
+
+    @Override
+    public SchemaValidator getSchemaValidator(Map<String, Object> options) {
+        SchemaValidator validator = super.getSchemaValidator(options);
+        return (metadata, executionOptions, inclusionFilter) ->
+                record("validate", () -> validator.doValidation(metadata, executionOptions, inclusionFilter));
+    }
+
+    private void record(String action, Runnable work) {
+        StartupStep step = applicationStartup.start(STEP_PREFIX + action);
+        try {
+            work.run();
+        } finally {
+            step.end();
+        }
+    }
+}
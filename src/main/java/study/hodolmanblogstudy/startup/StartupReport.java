@@ -0,0 +1,119 @@
+package study.hodolmanblogstudy.startup;
+
+import lombok.Getter;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 시작 시간 보고서 (StartupReporter)
+ * - totalMillis: 애플리케이션 시작 ~ 요청을 받을 준비가 될 때까지 (ApplicationReadyEvent)
+ * - phases: 주요 단계별 소요 시간 (ms)
+ * - slowestSteps: 가장 오래 걸린 단계
+ *
+ * 빈 생성 단계는 의존하는 빈의 생성 시간을 포함한다. (entityManagerFactory 안에 dataSource 생성 시간이 들어간다.)
+ * -> 단계끼리 겹칠 수 있어서 phases를 더해도 totalMillis와 같지 않다.
+ */
+@Getter
+public class StartupReport {
+
+    private static final int SLOWEST_STEPS = 20;
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    private static final String BEAN_NAME = "beanName";
+
+    /**
+     * 단계 이름 -> 해당하는 시작 단계 (여러 개면 더한다.)
+     */
+    private static final Map<String, Predicate<StartupStep>> PHASES = new LinkedHashMap<>();
+
+    static {
+        PHASES.put("context.refresh", named("spring.context.refresh"));
+        PHASES.put("jpa.entityManagerFactory", bean("entityManagerFactory"));
+        PHASES.put("hibernate.schema", step -> step.getName().startsWith(RecordingSchemaManagementTool.STEP_PREFIX));
+        PHASES.put("jpa.metamodel", bean("jpaMappingContext"));
+        PHASES.put("jpa.repositories", named("spring.data.repository.scanning").or(named("spring.data.repository.init")));
+        PHASES.put("querydsl", bean("jpaQueryFactory").or(bean("postRepositoryImpl")));
+        PHASES.put("search.index", bean("postSearchIndex"));
+        PHASES.put("web.server", named("spring.boot.webserver.create"));
+    }
+
+    private final long totalMillis;
+    private final Map<String, Long> phases;
+    private final List<Step> slowestSteps;
+
+    private StartupReport(long totalMillis, Map<String, Long> phases, List<Step> slowestSteps) {
+        this.totalMillis = totalMillis;
+        this.phases = phases;
+        this.slowestSteps = slowestSteps;
+    }
+
+    public static StartupReport of(StartupTimeline timeline, Duration timeTaken) {
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+
+        Map<String, Long> phases = new LinkedHashMap<>();
+        PHASES.forEach((phase, matcher) -> {
+            long millis = events.stream()
+                    .filter(event -> matcher.test(event.getStartupStep()))
+                    .mapToLong(event -> event.getDuration().toMillis())
+                    .sum();
+            phases.put(phase, millis);
+        });
+
+        List<Step> slowestSteps = events.stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_STEPS)
+                .map(event -> new Step(event.getStartupStep().getName(), tag(event.getStartupStep(), BEAN_NAME),
+                        event.getDuration().toMillis()))
+                .toList();
+
+        return new StartupReport(timeTaken != null ? timeTaken.toMillis() : -1, phases, slowestSteps);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("시작 시간 ").append(totalMillis).append("ms");
+        phases.forEach((phase, millis) -> builder.append(", ").append(phase).append('=').append(millis).append("ms"));
+        return builder.toString();
+    }
+
+    private static Predicate<StartupStep> named(String name) {
+        return step -> step.getName().equals(name);
+    }
+
+    private static Predicate<StartupStep> bean(String beanName) {
+        return step -> step.getName().equals(BEAN_INSTANTIATE) && beanName.equals(tag(step, BEAN_NAME));
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals(key)) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * detail: 빈 생성 단계는 빈 이름, 그 외에는 null
+     */
+    @Getter
+    public static class Step {
+
+        private final String name;
+        private final String detail;
+        private final long millis;
+
+        public Step(String name, String detail, long millis) {
+            this.name = name;
+            this.detail = detail;
+            this.millis = millis;
+        }
+    }
+}
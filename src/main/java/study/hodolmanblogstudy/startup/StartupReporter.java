@@ -0,0 +1,70 @@
+package study.hodolmanblogstudy.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 시작이 끝나면(ApplicationReadyEvent) 기록된 시작 단계로 보고서를 만들어서 로그와 파일(blog.startup.report-path)로 남긴다.
+ * 전체 단계는 /actuator/startup 으로 확인할 수 있다.
+ *
+ * 시작 단계는 BufferingApplicationStartup을 사용할 때만 기록된다. (HodolmanBlogStudyApplication.main)
+ * -> 테스트처럼 main을 거치지 않고 시작하면 보고서를 만들지 않는다.
+ */
+@Slf4j
+@Component
+public class StartupReporter {
+
+    private final ApplicationStartup applicationStartup;
+    private final ObjectMapper objectMapper;
+    private final String reportPath;
+
+    private volatile StartupReport report;
+
+    public StartupReporter(ApplicationStartup applicationStartup, ObjectMapper objectMapper,
+                           @Value("${blog.startup.report-path:}") String reportPath) {
+        this.applicationStartup = applicationStartup;
+        this.objectMapper = objectMapper;
+        this.reportPath = reportPath;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup bufferingStartup)) {
+            return;
+        }
+
+        // getBufferedTimeline은 기록을 지우지 않는다. (/actuator/startup 에서 다시 볼 수 있다.)
+        report = StartupReport.of(bufferingStartup.getBufferedTimeline(), event.getTimeTaken());
+        log.info("{}", report);
+
+        if (StringUtils.hasText(reportPath)) {
+            try {
+                Path path = Path.of(reportPath);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            } catch (IOException e) {
+                log.warn("시작 시간 보고서를 저장하지 못했습니다. path={}", reportPath, e);
+            }
+        }
+    }
+
+    /**
+     * @return 시작 단계를 기록하지 않았으면 null
+     */
+    public StartupReport getReport() {
+        return report;
+    }
+}
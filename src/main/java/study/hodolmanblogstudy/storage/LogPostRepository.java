@@ -0,0 +1,543 @@
+package study.hodolmanblogstudy.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import study.hodolmanblogstudy.domain.ContentCodec;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.domain.PostDetail;
+import study.hodolmanblogstudy.domain.PostVersion;
+import study.hodolmanblogstudy.repository.PostStore;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 글 저장소 - 메모리 맵 append-only 로그 (blog.storage.engine=log)
+ * PostRepository(JPA)와 같은 계약(PostStore)을 구현하기 때문에 PostService는 저장소가 바뀐 것을 알지 못한다.
+ *
+ * - 모든 변경(등록, 수정, 삭제)은 로그 끝에 레코드를 추가한다. (PostLog) 삭제는 삭제 표시(tombstone) 레코드를 추가한다.
+ * - id -> 최신 레코드 위치는 메모리 인덱스(ConcurrentSkipListMap)에 둔다. 시작할 때 로그를 처음부터 읽어서 다시 만든다.
+ *   -> 글 조회는 인덱스에서 위치를 찾고 mmap에서 레코드 하나를 읽는다. (SQL, JDBC, 커넥션 풀을 거치지 않는다.)
+ *   -> 목록은 인덱스를 id 역순으로 읽는다. 버전 정보는 인덱스에만 있기 때문에 로그를 읽지 않는다.
+ * - 읽기는 락 없이 처리하고, 쓰기는 한 스레드씩 처리한다.
+ * - 수정/삭제로 쌓인 이전 레코드는 compaction-interval 마다 확인해서 일정 비율을 넘으면 살아있는 레코드만 새 파일로 옮긴다. (compact)
+ *
+ * JPA 트랜잭션에 참여하지 않는다. -> 호출한 쪽의 트랜잭션이 롤백되어도 이미 쓴 레코드는 되돌리지 않는다.
+ * 글 내용은 압축하지 않는다. (blog.storage.compress-content는 JPA 저장소에만 적용된다.)
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "blog.storage.engine", havingValue = "log")
+public class LogPostRepository implements PostStore, DisposableBean {
+
+    /**
+     * 목록용 요약 내용 길이 (PostRepositoryImpl과 같다.)
+     */
+    private static final int EXCERPT_LENGTH = 200;
+
+    private final Path path;
+    private final int regionSize;
+    private final boolean forceOnWrite;
+    private final double compactionRatio;
+    private final long compactionMinBytes;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 로그 파일과 인덱스는 항상 함께 바뀐다. (compact, deleteAll)
+     * 읽는 쪽은 state를 한 번만 읽어서 같은 파일, 같은 인덱스를 사용한다.
+     */
+    private volatile State state;
+
+    /**
+     * 아래 값은 쓰기 락 안에서만 변경한다.
+     */
+    private long nextId = 1;
+    private volatile long liveBytes;
+
+    public LogPostRepository(@Value("${blog.storage.log.path:./data/posts.log}") String path,
+                             @Value("${blog.storage.log.region-size:67108864}") int regionSize,
+                             @Value("${blog.storage.log.force-on-write:false}") boolean forceOnWrite,
+                             @Value("${blog.storage.log.compaction-ratio:0.5}") double compactionRatio,
+                             @Value("${blog.storage.log.compaction-min-bytes:16777216}") long compactionMinBytes) {
+        this.path = Path.of(path);
+        this.regionSize = regionSize;
+        this.forceOnWrite = forceOnWrite;
+        this.compactionRatio = compactionRatio;
+        this.compactionMinBytes = compactionMinBytes;
+        this.state = open();
+    }
+
+    /**
+     * 로그를 처음부터 읽어서 인덱스를 만든다.
+     * 압축 도중 멈춰서 남은 임시 파일은 지운다. (원래 파일은 그대로 있다.)
+     */
+    private State open() {
+        try {
+            Files.deleteIfExists(compactPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        PostLog postLog = new PostLog(path, regionSize);
+        ConcurrentSkipListMap<Long, Entry> index = new ConcurrentSkipListMap<>();
+        long[] live = new long[1];
+        postLog.recover((offset, size, record) -> {
+            if (record.type() == PostLog.SEQUENCE) {
+                nextId = Math.max(nextId, record.id());
+                return;
+            }
+
+            nextId = Math.max(nextId, record.id() + 1);
+            Entry previous = record.type() == PostLog.PUT
+                    ? index.put(record.id(), Entry.of(offset, size, record))
+                    : index.remove(record.id());
+            if (previous != null) {
+                live[0] -= previous.size();
+            }
+            if (record.type() == PostLog.PUT) {
+                live[0] += size;
+            }
+        });
+        liveBytes = live[0];
+
+        log.info("글 로그를 열었습니다. path={}, posts={}, bytes={}", path, index.size(), postLog.position());
+        return new State(postLog, index);
+    }
+
+    // ---------- PostRepositoryCustom ----------
+
+    @Override
+    public List<PostResponse> getList(PostSearch postSearch) {
+        State current = state;
+        return page(current, postSearch).stream()
+                .map(entry -> toResponse(current.log().read(entry.offset())))
+                .toList();
+    }
+
+    @Override
+    public List<PostResponse> getSummaryList(PostSearch postSearch) {
+        State current = state;
+        return page(current, postSearch).stream()
+                .map(entry -> toSummary(current.log().read(entry.offset())))
+                .toList();
+    }
+
+    /**
+     * 한 페이지의 위치는 인덱스에서 먼저 정하고, 레코드는 스트림을 읽을 때 하나씩 읽는다.
+     */
+    @Override
+    public Stream<PostResponse> streamList(PostSearch postSearch) {
+        State current = state;
+        return page(current, postSearch).stream()
+                .map(entry -> {
+                    PostLog.Record record = current.log().read(entry.offset());
+                    return postSearch.isSummary() ? toSummary(record) : toResponse(record);
+                });
+    }
+
+    @Override
+    public PostDetail getDetail(Long id) {
+        State current = state;
+        Entry entry = current.index().get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        return toDetail(current.log().read(entry.offset()));
+    }
+
+    @Override
+    public List<PostDetail> getDetails(List<Long> ids) {
+        State current = state;
+        return ids.stream()
+                .distinct()
+                .map(current.index()::get)
+                .filter(Objects::nonNull)
+                .map(entry -> toDetail(current.log().read(entry.offset())))
+                .toList();
+    }
+
+    @Override
+    public List<PostResponse> getResponses(List<Long> ids) {
+        State current = state;
+        return ids.stream()
+                .distinct()
+                .map(current.index()::get)
+                .filter(Objects::nonNull)
+                .map(entry -> toResponse(current.log().read(entry.offset())))
+                .toList();
+    }
+
+    @Override
+    public List<Long> getExistingIds(List<Long> ids) {
+        ConcurrentSkipListMap<Long, Entry> index = state.index();
+        return ids.stream()
+                .distinct()
+                .filter(index::containsKey)
+                .toList();
+    }
+
+    @Override
+    public PostVersion getVersion(Long id) {
+        Entry entry = state.index().get(id);
+        return entry != null ? entry.toVersion() : null;
+    }
+
+    @Override
+    public List<PostVersion> getVersionList(PostSearch postSearch) {
+        return page(state, postSearch).stream()
+                .map(Entry::toVersion)
+                .toList();
+    }
+
+    /**
+     * 모든 글을 쓴 뒤 한 번만 force 한다. (force-on-write)
+     */
+    @Override
+    public List<Long> saveAllInBatch(List<Post> posts) {
+        List<Long> ids = new ArrayList<>(posts.size());
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            for (Post newPost : posts) {
+                long id = nextId++;
+                append(PostLog.Record.put(id, 0, now, newPost.getTitle(), newPost.getContent()));
+                ids.add(id);
+            }
+            forceIfNeeded();
+        } finally {
+            writeLock.unlock();
+        }
+        return ids;
+    }
+
+    @Override
+    public long updatePost(Long id, String title, String content, Long expectedVersion) {
+        writeLock.lock();
+        try {
+            Entry entry = state.index().get(id);
+            if (entry == null || (expectedVersion != null && entry.version() != expectedVersion)) {
+                return 0;
+            }
+            update(entry, title, content, System.currentTimeMillis());
+            forceIfNeeded();
+            return 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long updatePosts(List<Long> ids, String title, String content) {
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            long updated = 0;
+            for (Long id : ids.stream().distinct().toList()) {
+                Entry entry = state.index().get(id);
+                if (entry != null) {
+                    update(entry, title, content, now);
+                    updated++;
+                }
+            }
+            forceIfNeeded();
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long deletePost(Long id) {
+        return deletePosts(List.of(id));
+    }
+
+    @Override
+    public long deletePosts(List<Long> ids) {
+        writeLock.lock();
+        try {
+            long deleted = 0;
+            for (Long id : ids.stream().distinct().toList()) {
+                if (state.index().containsKey(id)) {
+                    append(PostLog.Record.delete(id));
+                    deleted++;
+                }
+            }
+            forceIfNeeded();
+            return deleted;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Long> getIdsInRange(Long fromId, Long toId, Long afterId, int limit) {
+        boolean afterFrom = afterId != null && afterId >= fromId;
+        long lower = afterFrom ? afterId : fromId;
+        if (lower > toId) {
+            return List.of();
+        }
+
+        NavigableMap<Long, Entry> range = state.index().subMap(lower, !afterFrom, toId, true);
+        return range.keySet().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * id 순서대로 레코드를 하나씩 읽는다. (목록을 메모리에 모으지 않는다.)
+     * 읽는 동안 등록/수정된 글은 포함될 수도, 포함되지 않을 수도 있다.
+     */
+    @Override
+    public Stream<PostResponse> streamAll() {
+        State current = state;
+        return current.index().values().stream()
+                .map(entry -> toResponse(current.log().read(entry.offset())));
+    }
+
+    // ---------- PostStore ----------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Post> S save(S entity) {
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            Entry entry = entity.getId() != null ? state.index().get(entity.getId()) : null;
+            long id;
+            long version;
+            if (entry != null) {
+                id = entry.id();
+                version = entry.version() + 1;
+            } else {
+                id = entity.getId() != null ? entity.getId() : nextId;
+                version = 0;
+            }
+            nextId = Math.max(nextId, id + 1);
+
+            append(PostLog.Record.put(id, version, now, entity.getTitle(), entity.getContent()));
+            forceIfNeeded();
+            return (S) Post.restore(id, entity.getTitle(), entity.getContent(), version, Instant.ofEpochMilli(now));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return state.index().containsKey(id);
+    }
+
+    @Override
+    public long count() {
+        return state.index().size();
+    }
+
+    // ---------- 압축 ----------
+
+    /**
+     * 로그에서 이전 버전, 삭제된 글이 차지하는 비율이 compaction-ratio를 넘으면 압축한다.
+     * 로그가 compaction-min-bytes 보다 작으면 압축하지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${blog.storage.log.compaction-interval:60000}",
+            initialDelayString = "${blog.storage.log.compaction-interval:60000}")
+    public void compactIfNeeded() {
+        long size = state.log().position();
+        if (size < compactionMinBytes || size - liveBytes < size * compactionRatio) {
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * 살아있는 레코드만 새 파일에 옮겨 쓰고 원래 파일과 바꾼다.
+     * 압축하는 동안 쓰기는 기다리고, 읽기는 이전 파일에서 계속 처리한다.
+     */
+    public void compact() {
+        writeLock.lock();
+        try {
+            long before = state.log().position();
+            rewrite(state.index());
+            log.info("글 로그를 압축했습니다. {} -> {} bytes", before, state.log().position());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 로그 전체 크기 / 살아있는 레코드 크기 (bytes)
+     */
+    public long getLogBytes() {
+        return state.log().position();
+    }
+
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    @Override
+    public void destroy() {
+        writeLock.lock();
+        try {
+            state.log().close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 새 파일 = SEQUENCE(다음 id) + 살아있는 레코드
+     * 새 파일을 모두 쓰고 force 한 뒤에 원래 파일과 원자적으로 바꾼다.
+     * -> 중간에 멈추면 원래 파일이 그대로 남는다. (임시 파일은 다음에 열 때 지운다.)
+     */
+    private void rewrite(Map<Long, Entry> entries) {
+        State current = state;
+        PostLog compacted = new PostLog(compactPath(), regionSize);
+        ConcurrentSkipListMap<Long, Entry> index = new ConcurrentSkipListMap<>();
+        long live = 0;
+
+        compacted.append(PostLog.Record.sequence(nextId));
+        for (Entry entry : entries.values()) {
+            long offset = compacted.append(current.log().read(entry.offset()));
+            index.put(entry.id(), entry.movedTo(offset));
+            live += entry.size();
+        }
+        compacted.force();
+        compacted.moveTo(path);
+
+        state = new State(compacted, index);
+        liveBytes = live;
+        current.log().close();
+    }
+
+    private void update(Entry entry, String title, String content, long now) {
+        PostLog.Record record = state.log().read(entry.offset());
+        append(PostLog.Record.put(entry.id(), entry.version() + 1, now,
+                title != null ? title : record.title(),
+                content != null ? content : record.content()));
+    }
+
+    /**
+     * 쓰기 락 안에서 호출한다.
+     * 레코드를 먼저 쓰고 인덱스를 바꾸기 때문에 읽는 쪽은 항상 다 쓰여진 레코드만 본다.
+     */
+    private void append(PostLog.Record record) {
+        State current = state;
+        long offset = current.log().append(record);
+        int size = (int) (current.log().position() - offset);
+
+        Entry previous = record.type() == PostLog.PUT
+                ? current.index().put(record.id(), Entry.of(offset, size, record))
+                : current.index().remove(record.id());
+        long live = liveBytes;
+        if (previous != null) {
+            live -= previous.size();
+        }
+        if (record.type() == PostLog.PUT) {
+            live += size;
+        }
+        liveBytes = live;
+    }
+
+    private void forceIfNeeded() {
+        if (forceOnWrite) {
+            state.log().force();
+        }
+    }
+
+    /**
+     * PostRepositoryImpl.fetchPage와 같은 순서, 같은 범위 (id desc)
+     */
+    private static List<Entry> page(State current, PostSearch postSearch) {
+        ConcurrentSkipListMap<Long, Entry> index = current.index();
+        int size = postSearch.getSize();
+
+        Long beforeId = postSearch.getBeforeId();
+        if (beforeId != null) {
+            List<Entry> result = new ArrayList<>(index.tailMap(beforeId, false).values().stream()
+                    .limit(size)
+                    .toList());
+            Collections.reverse(result);
+            return result;
+        }
+
+        Long afterId = postSearch.getAfterId();
+        if (afterId != null) {
+            return index.headMap(afterId, false).descendingMap().values().stream()
+                    .limit(size)
+                    .toList();
+        }
+
+        return index.descendingMap().values().stream()
+                .skip(postSearch.getOffset())
+                .limit(size)
+                .toList();
+    }
+
+    private static PostDetail toDetail(PostLog.Record record) {
+        return new PostDetail(record.id(), record.title(), record.content(),
+                record.version(), Instant.ofEpochMilli(record.modifiedAt()));
+    }
+
+    private static PostResponse toResponse(PostLog.Record record) {
+        return PostResponse.builder()
+                .id(record.id())
+                .title(record.title())
+                .content(record.content())
+                .build();
+    }
+
+    private static PostResponse toSummary(PostLog.Record record) {
+        return PostResponse.builder()
+                .id(record.id())
+                .title(record.title())
+                .content(ContentCodec.decodePrefix(record.content(), EXCERPT_LENGTH))
+                .build();
+    }
+
+    private Path compactPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    private record State(PostLog log, ConcurrentSkipListMap<Long, Entry> index) {
+    }
+
+    /**
+     * 글의 최신 레코드 위치와 버전 정보 (목록의 ETag, 조건부 GET은 로그를 읽지 않고 처리한다.)
+     */
+    private record Entry(long id, long offset, int size, long version, long modifiedAt) {
+
+        static Entry of(long offset, int size, PostLog.Record record) {
+            return new Entry(record.id(), offset, size, record.version(), record.modifiedAt());
+        }
+
+        Entry movedTo(long offset) {
+            return new Entry(id, offset, size, version, modifiedAt);
+        }
+
+        PostVersion toVersion() {
+            return new PostVersion(id, version, Instant.ofEpochMilli(modifiedAt));
+        }
+    }
+}
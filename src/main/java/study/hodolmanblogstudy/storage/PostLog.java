@@ -0,0 +1,351 @@
+package study.hodolmanblogstudy.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32C;
+
+/**
+ * 글 저장용 append-only 로그 파일 (LogPostRepository)
+ *
+ * 파일을 regionSize 크기의 구간으로 나눠서 메모리 맵(mmap)으로 읽고 쓴다.
+ * -> 읽기는 시스템 콜 없이 OS 페이지 캐시를 바로 읽는다.
+ * -> 레코드는 구간 경계를 넘지 않는다. 남은 공간이 부족하면 SKIP 표시 후 다음 구간에 쓴다.
+ *
+ * 레코드 = [length(4)][crc(4)][payload(length)]
+ * payload = [type(1)][id(8)][version(8)][modifiedAt(8)][title][content] (문자열은 [bytes 길이(4), null이면 -1][UTF-8 bytes])
+ * -> payload, crc를 먼저 쓰고 length를 마지막에 쓴다. length가 0이면 로그의 끝이다.
+ * -> 쓰는 도중 프로세스가 죽으면 length가 0이거나 crc가 맞지 않는다. 열 때 그 레코드부터 잘라낸다. (recover)
+ *
+ * append는 한 스레드씩 호출해야 한다. (LogPostRepository의 쓰기 락)
+ * read는 append와 동시에 호출할 수 있다. (이미 쓰여진 위치만 읽는다.)
+ */
+final class PostLog implements Closeable {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    /**
+     * 압축(compaction)으로 지워진 글 id가 다시 사용되지 않도록 다음 id를 기록한다.
+     */
+    static final byte SEQUENCE = 3;
+
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * 구간의 남은 공간을 건너뛰고 다음 구간부터 읽는다.
+     */
+    private static final int SKIP = -1;
+
+    private static final int FIXED_PAYLOAD_SIZE = 1 + 8 + 8 + 8 + 4 + 4;
+
+    private Path path;
+    private final FileChannel channel;
+    private final int regionSize;
+    private final List<MappedByteBuffer> regions = new CopyOnWriteArrayList<>();
+
+    /**
+     * 다음 레코드를 쓸 위치
+     */
+    private volatile long position;
+
+    /**
+     * 마지막 force 이후에 처음 쓴 구간
+     */
+    private int dirtyRegion;
+
+    PostLog(Path path, int regionSize) {
+        this.path = path;
+        this.regionSize = regionSize;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 처음부터 레코드를 읽어서 visitor에 전달하고, 쓰기 위치를 마지막 정상 레코드 다음으로 맞춘다.
+     * 잘린 레코드(쓰다가 멈춘 레코드)를 만나면 그 뒤는 모두 0으로 지운다.
+     */
+    void recover(RecordVisitor visitor) {
+        long offset = 0;
+        long fileSize = size();
+        while (offset + HEADER_SIZE <= fileSize) {
+            MappedByteBuffer region = region(regionIndex(offset));
+            int local = localOffset(offset);
+            int length = local + HEADER_SIZE <= regionSize ? region.getInt(local) : SKIP;
+
+            if (length == SKIP) {
+                offset = nextRegion(offset);
+                continue;
+            }
+            if (length <= 0 || local + HEADER_SIZE + length > regionSize) {
+                break;
+            }
+
+            Record record = decode(region, local, length);
+            if (record == null) {
+                break;
+            }
+            visitor.visit(offset, HEADER_SIZE + length, record);
+            offset += HEADER_SIZE + length;
+        }
+
+        position = offset;
+        dirtyRegion = regionIndex(offset);
+        truncateFrom(offset, fileSize);
+    }
+
+    /**
+     * 레코드를 로그 끝에 추가한다.
+     *
+     * @return 레코드 위치
+     */
+    long append(Record record) {
+        byte[] payload = encode(record);
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > regionSize) {
+            throw new IllegalArgumentException("레코드가 너무 큽니다. (" + recordSize + " bytes)");
+        }
+
+        long offset = position;
+        if (localOffset(offset) + recordSize > regionSize) {
+            if (localOffset(offset) + 4 <= regionSize) {
+                region(regionIndex(offset)).putInt(localOffset(offset), SKIP);
+            }
+            offset = nextRegion(offset);
+        }
+
+        MappedByteBuffer region = region(regionIndex(offset));
+        int local = localOffset(offset);
+        region.put(local + HEADER_SIZE, payload);
+        region.putInt(local + 4, crc(payload, 0, payload.length));
+        region.putInt(local, payload.length);
+
+        position = offset + recordSize;
+        return offset;
+    }
+
+    /**
+     * append가 반환한 위치의 레코드를 읽는다.
+     */
+    Record read(long offset) {
+        MappedByteBuffer region = region(regionIndex(offset));
+        int local = localOffset(offset);
+        Record record = decode(region, local, region.getInt(local));
+        if (record == null) {
+            throw new IllegalStateException("손상된 레코드입니다. (offset=" + offset + ")");
+        }
+        return record;
+    }
+
+    /**
+     * 마지막 force 이후에 쓴 구간을 디스크에 반영한다.
+     */
+    void force() {
+        int last = regionIndex(position);
+        for (int i = dirtyRegion; i <= last && i < regions.size(); i++) {
+            regions.get(i).force();
+        }
+        dirtyRegion = last;
+    }
+
+    long position() {
+        return position;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * 파일을 target으로 옮긴다. (target이 있으면 원자적으로 교체한다.)
+     * 이미 맵핑한 구간은 옮긴 뒤에도 그대로 사용할 수 있다.
+     */
+    void moveTo(Path target) {
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            path = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 채널만 닫는다. 맵핑한 구간은 GC 될 때까지 유효하기 때문에 아직 읽고 있는 스레드도 안전하다.
+     */
+    @Override
+    public void close() {
+        try {
+            force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer region(int index) {
+        while (regions.size() <= index) {
+            synchronized (regions) {
+                if (regions.size() <= index) {
+                    regions.add(map(regions.size()));
+                }
+            }
+        }
+        return regions.get(index);
+    }
+
+    /**
+     * READ_WRITE로 맵핑하면 파일이 구간 크기만큼 늘어난다. (늘어난 부분은 0 -> 로그의 끝)
+     */
+    private MappedByteBuffer map(int index) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) index * regionSize, regionSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void truncateFrom(long offset, long fileSize) {
+        if (offset >= fileSize) {
+            return;
+        }
+        int index = regionIndex(offset);
+        MappedByteBuffer region = region(index);
+        int local = localOffset(offset);
+        if (local < regionSize) {
+            region.put(local, new byte[regionSize - local]);
+            region.force();
+        }
+        try {
+            channel.truncate((long) (index + 1) * regionSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int regionIndex(long offset) {
+        return (int) (offset / regionSize);
+    }
+
+    private int localOffset(long offset) {
+        return (int) (offset % regionSize);
+    }
+
+    private long nextRegion(long offset) {
+        return (long) (regionIndex(offset) + 1) * regionSize;
+    }
+
+    private static byte[] encode(Record record) {
+        byte[] title = bytes(record.title());
+        byte[] content = bytes(record.content());
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_PAYLOAD_SIZE
+                + (title != null ? title.length : 0)
+                + (content != null ? content.length : 0));
+        buffer.put(record.type())
+                .putLong(record.id())
+                .putLong(record.version())
+                .putLong(record.modifiedAt());
+        putString(buffer, title);
+        putString(buffer, content);
+        return buffer.array();
+    }
+
+    /**
+     * crc가 맞지 않거나 길이가 잘못된 레코드는 null
+     */
+    private static Record decode(MappedByteBuffer region, int local, int length) {
+        if (length < FIXED_PAYLOAD_SIZE || local + HEADER_SIZE + length > region.capacity()) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        region.get(local + HEADER_SIZE, payload);
+        if (crc(payload, 0, length) != region.getInt(local + 4)) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte type = buffer.get();
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        long modifiedAt = buffer.getLong();
+        String title = getString(buffer);
+        String content = getString(buffer);
+        return new Record(type, id, version, modifiedAt, title, content);
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 로그 레코드 1개
+     * DELETE, SEQUENCE는 id만 사용한다. (SEQUENCE의 id = 다음에 사용할 id)
+     */
+    record Record(byte type, long id, long version, long modifiedAt, String title, String content) {
+
+        static Record put(long id, long version, long modifiedAt, String title, String content) {
+            return new Record(PUT, id, version, modifiedAt, title, content);
+        }
+
+        static Record delete(long id) {
+            return new Record(DELETE, id, 0, 0, null, null);
+        }
+
+        static Record sequence(long nextId) {
+            return new Record(SEQUENCE, nextId, 0, 0, null, null);
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(long offset, int size, Record record);
+    }
+}
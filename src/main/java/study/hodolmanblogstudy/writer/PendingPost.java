@@ -0,0 +1,27 @@
+package study.hodolmanblogstudy.writer;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 저장 대기 중인 글 (PostWriteBuffer)
+ * id는 큐에 넣을 때 미리 받고, committed는 이 글이 포함된 묶음이 커밋되면 완료된다.
+ */
+@Getter
+public class PendingPost {
+
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final Instant createdAt;
+    private final CompletableFuture<Long> committed = new CompletableFuture<>();
+
+    PendingPost(Long id, String title, String content) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,36 @@
+package study.hodolmanblogstudy.writer;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+import study.hodolmanblogstudy.domain.Post;
+
+/**
+ * INSERT 전에 글 id를 미리 받는다.
+ * Post 엔티티의 id 생성기(post_seq, allocationSize 만큼 id 블록을 한 번에 예약)를 그대로 사용한다.
+ * -> JPA로 저장하는 글과 id 블록을 나눠 쓰기 때문에 서로 겹치지 않는다.
+ * -> 시퀀스는 블록을 다 쓸 때만 조회한다. (나머지는 메모리에서 바로 반환)
+ */
+@Component
+public class PostIdAllocator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator generator;
+
+    public PostIdAllocator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Post.class)
+                .getGenerator();
+    }
+
+    public Long next() {
+        // 커넥션은 시퀀스를 조회할 때만 사용한다.
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package study.hodolmanblogstudy.writer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.hodolmanblogstudy.cache.PostCache;
+import study.hodolmanblogstudy.cache.PostPageCache;
+import study.hodolmanblogstudy.counter.PostCounter;
+import study.hodolmanblogstudy.domain.ContentCodec;
+import study.hodolmanblogstudy.exception.ServiceUnavailable;
+import study.hodolmanblogstudy.search.PostSearchIndex;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 글 등록 쓰기 지연(write-behind) + 그룹 커밋
+ * blog.storage.write-behind.enabled=true 인 경우 PostService.write가 사용한다. (jpa 저장소에서만 켤 수 있다.)
+ *
+ * 글 등록 요청마다 트랜잭션을 따로 커밋(= DB 로그 fsync)하지 않고,
+ * 요청 스레드는 큐에 넣고 기다리기만 하고, 쓰기 스레드 하나가 큐에 쌓인 글을 모아서 batch insert + 커밋 한 번으로 저장한다.
+ * -> 요청이 몰릴수록 한 번에 커밋하는 글이 많아진다. (요청이 적을 때는 기다리지 않고 바로 저장하기 때문에 응답이 늦어지지 않는다.)
+ * -> id는 큐에 넣기 전에 미리 받는다. (PostIdAllocator)
+ * -> 요청 스레드는 자기 글이 포함된 묶음이 커밋된 뒤에 응답한다. (응답을 받은 글은 DB에 저장되어 있다.)
+ *
+ * 큐가 가득 차면 offer-timeout 동안 기다리고, 그래도 자리가 없으면 503으로 응답한다. (backpressure)
+ * 종료시에는 새 요청을 받지 않고 큐에 남은 글을 모두 저장한 뒤에 멈춘다. (DataSource보다 먼저, 웹 서버보다 나중에 멈춘다.)
+ *
+ * 메트릭
+ * - post.write.queue: 큐에 쌓인 글 수
+ * - post.write.batch: 커밋 한 번에 저장한 글 수
+ * - post.write.commit: 묶음 INSERT + 커밋 시간
+ * - post.write.rejected: 큐가 가득 차서 거절한 요청 수
+ */
+@Slf4j
+@Component
+public class PostWriteBuffer implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+            "insert into post (id, title, content, version, modified_at) values (?, ?, ?, 0, ?)";
+
+    /**
+     * 큐가 비어 있을 때 쓰기 스레드가 종료 여부를 확인하는 주기
+     */
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * 종료시 남은 글을 저장할 때까지 기다리는 최대 시간
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 30_000;
+
+    private final boolean enabled;
+    private final boolean compressContent;
+    private final int maxBatchSize;
+    private final long offerTimeoutMillis;
+    private final long ackTimeoutMillis;
+
+    private final PostIdAllocator postIdAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostCounter postCounter;
+    private final PostSearchIndex postSearchIndex;
+    private final PostPageCache postPageCache;
+    private final PostCache postCache;
+
+    private final BlockingQueue<PendingPost> queue;
+
+    /**
+     * 큐에 넣는 중(read)에는 멈추지(write) 않는다. -> 멈춘 뒤에 큐에 들어가서 저장되지 않는 글이 없도록 한다.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitTimer;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PostWriteBuffer(PostIdAllocator postIdAllocator, JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate, PostCounter postCounter,
+                           PostSearchIndex postSearchIndex, PostPageCache postPageCache, PostCache postCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${blog.storage.write-behind.enabled:false}") boolean enabled,
+                           @Value("${blog.storage.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${blog.storage.write-behind.max-batch-size:500}") int maxBatchSize,
+                           @Value("${blog.storage.write-behind.offer-timeout:100}") long offerTimeoutMillis,
+                           @Value("${blog.storage.write-behind.ack-timeout:5000}") long ackTimeoutMillis,
+                           @Value("${blog.storage.compress-content:false}") boolean compressContent,
+                           @Value("${blog.storage.engine:jpa}") String engine) {
+        // 묶음 INSERT는 post 테이블에 바로 쓰기 때문에 다른 저장소에 쓰면 글이 보이지 않는다.
+        if (enabled && !"jpa".equals(engine)) {
+            throw new IllegalStateException("쓰기 지연(blog.storage.write-behind.enabled)은 jpa 저장소에서만 사용할 수 있습니다. " +
+                    "(blog.storage.engine=" + engine + ")");
+        }
+
+        this.postIdAllocator = postIdAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.postCounter = postCounter;
+        this.postSearchIndex = postSearchIndex;
+        this.postPageCache = postPageCache;
+        this.postCache = postCache;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.compressContent = compressContent;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("post.write.queue", queue, BlockingQueue::size)
+                .description("저장 대기 중인 글 수 (PostWriteBuffer)")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("post.write.batch")
+                .description("커밋 한 번에 저장한 글 수")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("post.write.commit")
+                .description("묶음 INSERT + 커밋 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("post.write.rejected")
+                .description("큐가 가득 차서 거절한 글 등록 요청 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 글을 큐에 넣고 커밋될 때까지 기다린다.
+     *
+     * @return 저장된 글 id
+     */
+    public Long write(String title, String content) {
+        PendingPost pending = submit(title, content);
+
+        try {
+            return pending.getCommitted().get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailable(e);
+        } catch (TimeoutException e) {
+            // 큐에 들어간 글은 응답과 상관없이 저장된다.
+            throw new ServiceUnavailable(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 글을 큐에 넣는다. (커밋을 기다리지 않는다.)
+     * 큐가 가득 차 있으면 offer-timeout 동안 기다리고, 그래도 자리가 없거나 멈춘 상태이면 ServiceUnavailable
+     */
+    public PendingPost submit(String title, String content) {
+        lock.readLock().lock();
+        try {
+            if (!running) {
+                throw new ServiceUnavailable();
+            }
+
+            PendingPost pending = new PendingPost(postIdAllocator.next(), title, content);
+            if (!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment();
+                throw new ServiceUnavailable();
+            }
+            return pending;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailable(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        writer = new Thread(this::drain, "post-writer");
+        writer.start();
+    }
+
+    /**
+     * 새 글은 받지 않고, 큐에 남은 글을 모두 저장한 뒤에 멈춘다.
+     */
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writer.isAlive() || !queue.isEmpty()) {
+            log.error("종료 전에 저장하지 못한 글이 있습니다. (대기 중 {}개)", queue.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 웹 서버(WebServerStartStopLifecycle)보다 먼저 시작하고 나중에 멈춘다.
+     * -> 요청을 받기 전에 쓰기 스레드가 준비되고, 요청을 더 받지 않게 된 뒤에 남은 글을 저장한다.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * 쓰기 스레드
+     * 큐에 글이 있으면 최대 max-batch-size 개를 꺼내서 한 번에 저장한다.
+     * 저장하는 동안 들어온 글은 다음 묶음에 포함된다.
+     */
+    private void drain() {
+        List<PendingPost> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            PendingPost first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // 큐에 남은 글을 모두 저장할 때까지 멈추지 않는다.
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 묶음 전체를 한 트랜잭션으로 저장한다.
+     * 실패하면 어떤 글 때문인지 알 수 없기 때문에 한 건씩 다시 저장해서 실패한 글만 실패로 응답한다.
+     */
+    private void flush(List<PendingPost> batch) {
+        try {
+            commitTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insert(batch)));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).getCommitted().completeExceptionally(e);
+                return;
+            }
+
+            log.warn("글 {}개 묶음 저장에 실패해서 한 건씩 다시 저장합니다.", batch.size(), e);
+            for (PendingPost pending : batch) {
+                flush(List.of(pending));
+            }
+            return;
+        }
+
+        batchSizeSummary.record(batch.size());
+        afterCommit(batch);
+    }
+
+    private void insert(List<PendingPost> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+            ps.setLong(1, pending.getId());
+            ps.setString(2, pending.getTitle());
+            ps.setString(3, ContentCodec.encode(pending.getContent(), compressContent));
+            ps.setTimestamp(4, Timestamp.from(pending.getCreatedAt()));
+        });
+    }
+
+    /**
+     * 커밋된 글 수, 목록 캐시, 없는 글 캐시(PostCache), 검색 인덱스를 반영한다.
+     * 기다리는 요청에 먼저 응답하고 색인한다. (색인이 실패해도 이미 저장된 글은 실패로 응답하지 않는다.)
+     */
+    private void afterCommit(List<PendingPost> batch) {
+        postCounter.add(batch.size());
+        postPageCache.invalidate();
+        postCache.evictAll(batch.stream().map(PendingPost::getId).toList());
+        for (PendingPost pending : batch) {
+            pending.getCommitted().complete(pending.getId());
+        }
+
+        for (PendingPost pending : batch) {
+            try {
+                postSearchIndex.index(pending.getId(), pending.getTitle(), pending.getContent());
+            } catch (RuntimeException e) {
+                log.error("검색 인덱스에 반영하지 못했습니다. id={}", pending.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 벤치마크용 대량 데이터 생성
+ * JPA로 100만건을 저장하면 데이터 준비에만 몇 분이 걸리기 때문에 H2의 system_range로 한 번에 넣는다.
+ * id를 직접 넣기 때문에 넣은 다음 post_seq를 넣은 범위 뒤로 옮긴다. (이후 JPA로 저장하는 글과 id가 겹치지 않는다.)
+ */
+final class BenchmarkData {
+
+    /**
+     * Post의 @SequenceGenerator allocationSize - Hibernate는 시퀀스 값에서 이만큼 앞의 id부터 사용한다.
+     */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private BenchmarkData() {
+    }
+
+    static void seedPosts(JdbcTemplate jdbcTemplate, long fromId, long toId) {
+        jdbcTemplate.update("insert into post (id, title, content, version, modified_at) " +
+                "select x, '제목 - ' || x, '내용 - ' || x, 0, current_timestamp from system_range(?, ?)", fromId, toId);
+        advanceSequence(jdbcTemplate, toId);
+    }
+
+    /**
+     * 내용이 contentLength 글자 정도인 글을 만든다. (응답 크기, 메모리 사용량 측정용)
+     */
+    static void seedPosts(JdbcTemplate jdbcTemplate, long fromId, long toId, int contentLength) {
+        jdbcTemplate.update("insert into post (id, title, content, version, modified_at) " +
+                        "select x, '제목 - ' || x, left(repeat('내용 - ' || x || ' ', ?), ?), 0, current_timestamp " +
+                        "from system_range(?, ?)",
+                contentLength / 5 + 1, contentLength, fromId, toId);
+        advanceSequence(jdbcTemplate, toId);
+    }
+
+    /**
+     * 다음에 받는 id 블록이 lastId 다음부터 시작하도록 post_seq를 옮긴다.
+     * 이미 받아둔 id 블록(메모리)은 옮길 수 없기 때문에 컨텍스트에서 글을 저장하기 전에 넣는다.
+     */
+    static void advanceSequence(JdbcTemplate jdbcTemplate, long lastId) {
+        jdbcTemplate.execute("alter sequence post_seq restart with " + (lastId + ID_ALLOCATION_SIZE));
+    }
+
+    static void clearPosts(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("delete from post");
+    }
+}
@@ -0,0 +1,139 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+import study.hodolmanblogstudy.limiter.ConcurrencyLimitInterceptor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 과부하 상황에서 동시 처리 제한(AimdLimiter) 적용 전 / 후 비교
+ * 커넥션 풀 10개, SQL마다 50ms 지연인 상태에 동시 요청 500개를 보낸다. (처리할 수 있는 양보다 훨씬 많은 요청)
+ * - 제한 없음: 모든 요청이 커넥션 풀 앞에서 줄을 서기 때문에 모든 요청의 지연 시간이 함께 늘어난다.
+ * - 제한 있음: 한도를 넘는 요청은 바로 503으로 거절되고, 처리된 요청(200)의 꼬리 지연 시간이 일정하게 유지된다.
+ * ./gradlew benchmark --tests '*ConcurrencyLimitBenchmarkTest'
+ */
+@Tag("benchmark")
+class ConcurrencyLimitBenchmarkTest {
+
+    private static final long DB_LATENCY_MILLIS = 50;
+    private static final int CONCURRENCY = 500;
+    private static final int REQUESTS_PER_CLIENT = 10;
+
+    @Test
+    @DisplayName("느린 DB + 과부하에서 동시 처리 제한 전 / 후 지연 시간")
+    void overload() throws Exception {
+        System.out.printf("%-10s %8s %12s %12s %12s %8s %14s %8s%n",
+                "mode", "200", "p50(ms)", "p99(ms)", "max(ms)", "503", "503 p99(ms)", "limit");
+        run("unlimited", false);
+        run("limited", true);
+    }
+
+    private void run(String mode, boolean limited) throws Exception {
+        // application.yml 보다 우선하도록 명령행 인자로 넘긴다. (properties()는 기본값이라 application.yml에 덮어써진다.)
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new DbLatencyInjector(DB_LATENCY_MILLIS)))
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + mode,
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--server.tomcat.threads.max=1000",
+                        "--blog.limiter.enabled=" + limited,
+                        // 매 요청이 DB를 조회하도록 목록 캐시는 끈다.
+                        "--blog.cache.page.max-pages=0",
+                        "--blog.search.index-path=",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        try {
+            ConcurrencyLimitInterceptor interceptor = context.getBean(ConcurrencyLimitInterceptor.class);
+            assertThat(interceptor.isEnabled()).as(mode).isEqualTo(limited);
+
+            BenchmarkData.seedPosts(context.getBean(JdbcTemplate.class), 1, 1_000);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/posts?page=1&size=5");
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            ConcurrentLinkedQueue<Long> okLatencies = new ConcurrentLinkedQueue<>();
+            ConcurrentLinkedQueue<Long> rejectedLatencies = new ConcurrentLinkedQueue<>();
+            AtomicLong errors = new AtomicLong();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    futures.add(clients.submit(() -> {
+                        for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                            long requestStart = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                long latency = System.nanoTime() - requestStart;
+                                if (response.statusCode() == 200) {
+                                    okLatencies.add(latency);
+                                } else if (response.statusCode() == 503) {
+                                    rejectedLatencies.add(latency);
+                                } else {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            long[] ok = sorted(okLatencies);
+            long[] rejected = sorted(rejectedLatencies);
+            System.out.printf("%-10s %8d %12.1f %12.1f %12.1f %8d %14.1f %8d%n", mode,
+                    ok.length, percentile(ok, 0.5), percentile(ok, 0.99), percentile(ok, 1.0),
+                    rejected.length, percentile(rejected, 0.99),
+                    interceptor.getReadLimiter().getLimit());
+            if (errors.get() > 0) {
+                System.out.printf("%-10s errors: %d%n", mode, errors.get());
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long[] sorted(ConcurrentLinkedQueue<Long> latencies) {
+        long[] values = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 느린 DB 상황을 흉내낸다.
+ * DataSource 빈을 감싸서 SQL을 실행할 때마다 latencyMillis 만큼 지연시킨다.
+ * -> 커넥션을 잡은 상태로 기다리기 때문에 실제로 DB 응답이 느린 것과 같은 효과가 난다.
+ *
+ * SpringApplicationBuilder.initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new DbLatencyInjector(50)))
+ */
+class DbLatencyInjector implements BeanPostProcessor {
+
+    private final long latencyMillis;
+
+    DbLatencyInjector(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+            return new SlowDataSource(dataSource, latencyMillis);
+        }
+        return bean;
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+
+        private final long latencyMillis;
+
+        SlowDataSource(DataSource target, long latencyMillis) {
+            super(target);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return slow(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return slow(super.getConnection(username, password));
+        }
+
+        private Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 글 1개씩 등록 vs batch 등록 (rows/sec)
+ * ./gradlew benchmark --tests '*PostBatchBenchmarkTest'
+ */
+@Tag("benchmark")
+@SpringBootTest
+class PostBatchBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int CHUNK = 5_000;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void before() {
+        BenchmarkData.clearPosts(jdbcTemplate);
+    }
+
+    @AfterEach
+    void after() {
+        BenchmarkData.clearPosts(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("글 1개씩 등록 vs batch 등록")
+    void singleVsBatch() {
+        List<PostCreate> requests = IntStream.range(0, ROWS)
+                .mapToObj(i -> PostCreate.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .toList();
+
+        long start = System.nanoTime();
+        requests.forEach(postService::write);
+        double singleSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertThat(postRepository.count()).isEqualTo(ROWS);
+
+        BenchmarkData.clearPosts(jdbcTemplate);
+
+        start = System.nanoTime();
+        for (int from = 0; from < ROWS; from += CHUNK) {
+            postService.writeAll(requests.subList(from, Math.min(from + CHUNK, ROWS)));
+        }
+        double batchSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertThat(postRepository.count()).isEqualTo(ROWS);
+
+        System.out.printf("%-10s %15s %15s%n", "mode", "seconds", "rows/sec");
+        System.out.printf("%-10s %15.3f %15.0f%n", "single", singleSeconds, ROWS / singleSeconds);
+        System.out.printf("%-10s %15.3f %15.0f%n", "batch", batchSeconds, ROWS / batchSeconds);
+    }
+}
@@ -0,0 +1,86 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.request.PostCursor;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.service.PostService;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * offset 페이징 vs 커서 페이징 비교
+ * ./gradlew benchmark --tests '*PostListBenchmarkTest'
+ */
+@Tag("benchmark")
+@SpringBootTest
+class PostListBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void before() {
+        BenchmarkData.clearPosts(jdbcTemplate);
+        BenchmarkData.seedPosts(jdbcTemplate, 1, ROWS);
+    }
+
+    @AfterEach
+    void after() {
+        BenchmarkData.clearPosts(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("100만건에서 페이지 깊이에 따른 offset / 커서 페이징 응답 시간")
+    void offsetVsCursor() {
+        int lastPage = ROWS / PAGE_SIZE;
+        int[] pages = {1, 100, 1_000, 10_000, lastPage / 2, lastPage};
+
+        System.out.printf("%-10s %15s %15s%n", "page", "offset(ms)", "cursor(ms)");
+        for (int page : pages) {
+            PostSearch offsetSearch = PostSearch.builder()
+                    .page(page)
+                    .size(PAGE_SIZE)
+                    .build();
+
+            // 같은 위치를 커서로 조회한다. (id desc 이므로 page 번째 페이지의 첫 글 바로 위가 커서)
+            long cursorId = ROWS - (long) (page - 1) * PAGE_SIZE + 1;
+            PostSearch cursorSearch = PostSearch.builder()
+                    .size(PAGE_SIZE)
+                    .after(PostCursor.encode(cursorId))
+                    .build();
+
+            assertThat(postService.getList(offsetSearch).get(0).getId())
+                    .isEqualTo(postService.getList(cursorSearch).get(0).getId());
+
+            double offsetMillis = measure(offsetSearch);
+            double cursorMillis = measure(cursorSearch);
+            System.out.printf("%-10d %15.3f %15.3f%n", page, offsetMillis, cursorMillis);
+        }
+    }
+
+    private double measure(PostSearch postSearch) {
+        for (int i = 0; i < WARMUP; i++) {
+            postService.getList(postSearch);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            postService.getList(postSearch);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
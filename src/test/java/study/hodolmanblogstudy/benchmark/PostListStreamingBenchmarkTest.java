@@ -0,0 +1,180 @@
+package study.hodolmanblogstudy.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 글 목록 응답: List로 모아서 직렬화 vs 조회하는 대로 바로 직렬화 (PostService.writeList)
+ * 요청 1번당
+ * - 할당한 메모리 (bytes): 요청 스레드에서 할당한 전체 bytes (GC 횟수, 할당 속도에 영향)
+ * - 최대 사용 메모리 (bytes): 응답을 쓰는 동안 GC 후에도 남아있는 heap이 요청 전보다 최대 얼마나 늘었는지 (동시 요청 수 x 이 값이 필요한 heap)
+ * ./gradlew benchmark --tests '*PostListStreamingBenchmarkTest'
+ */
+@Tag("benchmark")
+@SpringBootTest
+class PostListStreamingBenchmarkTest {
+
+    private static final int ROWS = 2_000;
+    private static final int CONTENT_LENGTH = 5_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 10;
+
+    /**
+     * 응답을 이 크기만큼 쓸 때마다 GC 후 heap 사용량을 확인한다.
+     */
+    private static final long SAMPLE_BYTES = 1024 * 1024;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+    @BeforeEach
+    void before() {
+        BenchmarkData.clearPosts(jdbcTemplate);
+        BenchmarkData.seedPosts(jdbcTemplate, 1, ROWS, CONTENT_LENGTH);
+    }
+
+    @AfterEach
+    void after() {
+        BenchmarkData.clearPosts(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("글 목록 응답 1번당 할당 메모리, 최대 사용 메모리 (List 직렬화 vs 스트리밍)")
+    void materializedVsStreaming() throws IOException {
+        System.out.printf("%-8s %-10s %20s %20s %15s%n",
+                "size", "mode", "allocated(bytes)", "peak live(bytes)", "response(bytes)");
+
+        for (int size : new int[]{20, 200, 2_000}) {
+            PostSearch postSearch = PostSearch.builder()
+                    .size(size)
+                    .build();
+
+            Result materialized = measure(postSearch, false);
+            Result streaming = measure(postSearch, true);
+            assertThat(streaming.responseBytes).isEqualTo(materialized.responseBytes);
+
+            print(size, "list", materialized);
+            print(size, "stream", streaming);
+        }
+    }
+
+    private Result measure(PostSearch postSearch, boolean streaming) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            write(postSearch, streaming, new SamplingOutputStream(false));
+        }
+
+        long allocated = 0;
+        long responseBytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            SamplingOutputStream out = new SamplingOutputStream(false);
+            long before = threadMXBean.getCurrentThreadAllocatedBytes();
+            write(postSearch, streaming, out);
+            allocated += threadMXBean.getCurrentThreadAllocatedBytes() - before;
+            responseBytes = out.written;
+        }
+
+        // GC를 여러 번 실행하기 때문에 할당량 측정과 따로 한 번만 측정한다.
+        SamplingOutputStream sampling = new SamplingOutputStream(true);
+        write(postSearch, streaming, sampling);
+
+        return new Result(allocated / ITERATIONS, sampling.peak, responseBytes);
+    }
+
+    /**
+     * 기존 방식: 목록 전체를 List로 조회한 뒤 HttpMessageConverter처럼 응답 스트림에 직렬화한다.
+     * 스트리밍: PostService.writeList (PostController.getListV2와 같다.)
+     */
+    private void write(PostSearch postSearch, boolean streaming, OutputStream out) throws IOException {
+        if (streaming) {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                postService.writeList(postSearch, generator);
+            }
+        } else {
+            objectMapper.writeValue(out, postService.getList(postSearch));
+        }
+    }
+
+    private static void print(int size, String mode, Result result) {
+        System.out.printf("%-8d %-10s %,20d %,20d %,15d%n",
+                size, mode, result.allocated, result.peak, result.responseBytes);
+    }
+
+    private record Result(long allocated, long peak, long responseBytes) {
+    }
+
+    /**
+     * 쓰여진 bytes는 버리고 크기만 센다.
+     * sample이면 SAMPLE_BYTES 만큼 쓸 때마다 GC 후 heap 사용량을 확인해서 요청 전보다 늘어난 최대값을 기록한다.
+     */
+    private class SamplingOutputStream extends OutputStream {
+
+        private final boolean sample;
+        private final long baseline;
+        private long written;
+        private long nextSample = SAMPLE_BYTES;
+        private long peak;
+
+        SamplingOutputStream(boolean sample) {
+            this.sample = sample;
+            this.baseline = sample ? liveHeap() : 0;
+        }
+
+        @Override
+        public void write(int b) {
+            written++;
+            sampleIfNeeded();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written += len;
+            sampleIfNeeded();
+        }
+
+        @Override
+        public void close() {
+            if (sample) {
+                peak = Math.max(peak, liveHeap() - baseline);
+            }
+        }
+
+        private void sampleIfNeeded() {
+            if (sample && written >= nextSample) {
+                peak = Math.max(peak, liveHeap() - baseline);
+                nextSample += SAMPLE_BYTES;
+            }
+        }
+
+        private long liveHeap() {
+            System.gc();
+            return memoryMXBean.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import study.hodolmanblogstudy.search.PostSearchIndex;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 검색 인덱스 응답 시간 (100만 문서)
+ * ./gradlew benchmark --tests '*PostSearchBenchmarkTest'
+ */
+@Tag("benchmark")
+class PostSearchBenchmarkTest {
+
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int WORDS_PER_DOCUMENT = 80;
+    private static final int QUERIES = 5_000;
+
+    private static final String[] WORDS = {
+            "스프링", "블로그", "게시글", "검색", "페이징", "캐시", "트랜잭션", "데이터베이스", "인덱스", "성능",
+            "개발자", "서버", "클라이언트", "요청", "응답", "검증", "예외", "테스트", "배포", "운영",
+            "자바", "코틀린", "쿼리", "엔티티", "영속성", "컨텍스트", "커밋", "롤백", "동시성", "스레드",
+            "메모리", "디스크", "네트워크", "지연", "처리량", "모니터링", "로그", "장애", "복구", "백업"
+    };
+
+    private static final String[] PARTICLES = {"", "를", "은", "이", "에서", "으로", "의", "과"};
+
+    @TempDir
+    Path indexPath;
+
+    @Test
+    @DisplayName("100만 문서에서 검색 응답 시간 (p50 / p99)")
+    void search() throws Exception {
+        PostSearchIndex index = new PostSearchIndex(indexPath.toString());
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= DOCUMENTS; id++) {
+            index.index(id, sentence(random, 5), sentence(random, WORDS_PER_DOCUMENT));
+        }
+        index.commit();
+        index.refresh();
+        double indexSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // warm up
+        for (int i = 0; i < 500; i++) {
+            index.search(sentence(random, 2), 0, 20);
+        }
+
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = sentence(random, 1 + random.nextInt(3));
+            long queryStart = System.nanoTime();
+            index.search(query, 0, 20);
+            latencies[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(latencies);
+        index.destroy();
+
+        System.out.printf("indexed %d documents in %.1fs%n", DOCUMENTS, indexSeconds);
+        System.out.printf("p50 %.3fms, p90 %.3fms, p99 %.3fms, max %.3fms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)])
+                    .append(PARTICLES[random.nextInt(PARTICLES.length)])
+                    .append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
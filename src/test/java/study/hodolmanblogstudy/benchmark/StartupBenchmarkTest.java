@@ -0,0 +1,89 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+import study.hodolmanblogstudy.startup.StartupReport;
+import study.hodolmanblogstudy.startup.StartupReporter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 시작 시간 비교: 기본 프로필 (ddl-auto: create, JDBC 메타데이터 조회) vs faststart 프로필
+ * 같은 JVM에서 RUNS번씩 시작해서 단계별 평균(ms)을 출력한다. (첫 번째 시작은 클래스 로딩 때문에 빼고 평균을 낸다.)
+ * ./gradlew benchmark --tests '*StartupBenchmarkTest'
+ *
+ * AOT, CDS 효과는 JVM을 새로 띄워야 보이기 때문에 여기서는 측정하지 않는다.
+ * -> java -jar build/libs/*.jar 와 ./gradlew runFastStart 의 "Started ... in" 로그를 비교한다.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final int RUNS = 6;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("기본 프로필 vs faststart 프로필 - 단계별 시작 시간")
+    void profiles() {
+        String url = "jdbc:h2:file:" + dir.resolve("startup");
+
+        Map<String, List<StartupReport>> reports = new LinkedHashMap<>();
+        reports.put("default", new ArrayList<>());
+        reports.put("faststart", new ArrayList<>());
+        for (int i = 0; i < RUNS; i++) {
+            // 기본 프로필이 스키마를 다시 만든 다음 faststart 프로필이 그 스키마를 사용한다.
+            reports.get("default").add(start(url, "default"));
+            reports.get("faststart").add(start(url, "faststart"));
+        }
+
+        System.out.printf("%-26s %12s %12s%n", "phase", "default", "faststart");
+        print("total", reports, StartupReport::getTotalMillis);
+        for (String phase : reports.get("default").get(0).getPhases().keySet()) {
+            print(phase, reports, report -> report.getPhases().get(phase));
+        }
+    }
+
+    private StartupReport start(String url, String profile) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(10_000))
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--blog.startup.report-path=",
+                        "--blog.search.index-path=",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        try {
+            StartupReport report = context.getBean(StartupReporter.class).getReport();
+            assertThat(report).isNotNull();
+            return report;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void print(String name, Map<String, List<StartupReport>> reports,
+                              ToLongFunction<StartupReport> value) {
+        System.out.printf("%-26s", name);
+        reports.values().forEach(runs -> System.out.printf(" %12.1f", runs.stream()
+                .skip(1)
+                .mapToLong(value)
+                .average()
+                .orElse(0)));
+        System.out.println();
+    }
+}
@@ -0,0 +1,119 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.repository.PostStore;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.service.PostService;
+import study.hodolmanblogstudy.storage.LogPostRepository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 글 저장소 비교: JPA + H2 (blog.storage.engine=jpa) vs 메모리 맵 로그 (blog.storage.engine=log)
+ * 같은 PostService 메서드를 호출해서 저장소만 바꿨을 때 처리량을 비교한다. (캐시를 거치지 않는 메서드만 사용한다.)
+ * - get: 글 1개 조회 (PostService.get)
+ * - list: 앞 100 페이지 중 하나 조회 (PostService.getList, size=20)
+ * - write: 글 1개 등록 (PostService.write)
+ * ./gradlew benchmark --tests '*StorageEngineBenchmarkTest'
+ */
+@Tag("benchmark")
+class StorageEngineBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int SEED_CHUNK = 10_000;
+    private static final int CONTENT_LENGTH = 1_000;
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+    private static final int WRITES = 5_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("JPA + H2 vs 메모리 맵 로그 저장소 - 조회, 목록, 등록 처리량")
+    void engines() {
+        System.out.printf("%-6s %-8s %15s %15s%n", "engine", "op", "ops/s", "avg(us)");
+        run("jpa");
+        run("log");
+    }
+
+    private void run(String engine) {
+        // application.yml(blog.storage.engine: jpa) 보다 우선하도록 명령행 인자로 넘긴다. (properties()는 기본값이라 덮어써진다.)
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:storage-" + engine,
+                        "--blog.storage.engine=" + engine,
+                        "--blog.storage.log.path=" + dir.resolve("posts.log"),
+                        "--blog.search.index-path=",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        try {
+            assertThat(context.getBean(PostStore.class))
+                    .as(engine)
+                    .isInstanceOf(engine.equals("log") ? LogPostRepository.class : PostRepository.class);
+
+            PostService postService = context.getBean(PostService.class);
+            List<Long> ids = seed(postService);
+
+            measure(engine, "get", i -> postService.get(ids.get(ThreadLocalRandom.current().nextInt(ids.size()))),
+                    ITERATIONS);
+            measure(engine, "list", i -> postService.getList(PostSearch.builder()
+                            .page(ThreadLocalRandom.current().nextInt(1, 101))
+                            .size(20)
+                            .build()),
+                    ITERATIONS);
+            measure(engine, "write", i -> postService.write(PostCreate.builder()
+                            .title("제목 " + i)
+                            .content("내용 " + i)
+                            .build()),
+                    WRITES);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<Long> seed(PostService postService) {
+        String content = "내용 ".repeat(CONTENT_LENGTH / 3);
+        List<Long> ids = new ArrayList<>(ROWS);
+        for (int from = 0; from < ROWS; from += SEED_CHUNK) {
+            List<PostCreate> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < from + SEED_CHUNK; i++) {
+                chunk.add(PostCreate.builder().title("제목 - " + i).content(content).build());
+            }
+            ids.addAll(postService.writeAll(chunk).getIds());
+        }
+        assertThat(ids).hasSize(ROWS).doesNotContainNull();
+        return ids;
+    }
+
+    private static void measure(String engine, String op, IntConsumer action, int iterations) {
+        for (int i = 0; i < Math.min(WARMUP, iterations); i++) {
+            action.accept(i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.accept(i);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-6s %-8s %,15.0f %15.1f%n", engine, op,
+                iterations * 1_000_000_000.0 / elapsed, elapsed / 1_000.0 / iterations);
+    }
+}
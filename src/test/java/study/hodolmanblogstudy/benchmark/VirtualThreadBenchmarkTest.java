@@ -0,0 +1,121 @@
+package study.hodolmanblogstudy.benchmark;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 플랫폼 스레드(Tomcat 기본 스레드 풀) vs 가상 스레드
+ * DB 응답이 느린 상황(SQL마다 50ms 지연)에서 동시 요청 1000개를 처리할 때의 처리량과 꼬리 지연 시간을 비교한다.
+ * ./gradlew benchmark --tests '*VirtualThreadBenchmarkTest'
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest {
+
+    private static final long DB_LATENCY_MILLIS = 50;
+    private static final int CONCURRENCY = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @Test
+    @DisplayName("느린 DB에서 플랫폼 스레드 vs 가상 스레드 처리량 / 지연 시간")
+    void platformVsVirtual() throws Exception {
+        System.out.printf("%-10s %12s %12s %12s %12s %8s%n", "mode", "req/sec", "p50(ms)", "p99(ms)", "max(ms)", "errors");
+        run("platform", false);
+        run("virtual", true);
+    }
+
+    private void run(String mode, boolean virtual) throws Exception {
+        // application.yml 보다 우선하도록 명령행 인자로 넘긴다. (properties()는 기본값이라 application.yml에 덮어써진다.)
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new DbLatencyInjector(DB_LATENCY_MILLIS)))
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + mode,
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--server.tomcat.threads.max=200",
+                        // 커넥션 풀이 병목이 되지 않도록 충분히 크게 잡는다. (요청 스레드 모델의 차이만 보기 위해)
+                        "--spring.datasource.hikari.maximum-pool-size=1000",
+                        "--blog.search.index-path=",
+                        // 스레드 모델만 비교하기 위해 목록 캐시, 동시 처리 제한은 끈다.
+                        "--blog.cache.page.max-pages=0",
+                        "--blog.limiter.enabled=false",
+                        "--logging.level.org.hibernate.SQL=warn");
+
+        try {
+            // 요청을 처리하는 Tomcat executor가 모드와 맞는지 확인한다.
+            TomcatWebServer webServer = (TomcatWebServer) ((WebServerApplicationContext) context).getWebServer();
+            assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                    .matches(executor -> executor instanceof VirtualThreadExecutor == virtual, mode);
+
+            BenchmarkData.seedPosts(context.getBean(JdbcTemplate.class), 1, 1_000);
+            int port = webServer.getPort();
+            URI uri = URI.create("http://localhost:" + port + "/posts?page=1&size=5");
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            long[] latencies = new long[CONCURRENCY * REQUESTS_PER_CLIENT];
+            AtomicLong index = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    futures.add(clients.submit(() -> {
+                        for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                            long requestStart = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[(int) index.getAndIncrement()] = System.nanoTime() - requestStart;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %12.0f %12.1f %12.1f %12.1f %8d%n", mode,
+                    latencies.length / seconds,
+                    latencies[latencies.length / 2] / 1_000_000.0,
+                    latencies[(int) (latencies.length * 0.99) - 1] / 1_000_000.0,
+                    latencies[latencies.length - 1] / 1_000_000.0,
+                    errors.get());
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package study.hodolmanblogstudy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.hodolmanblogstudy.request.PostCursor;
+import study.hodolmanblogstudy.request.PostSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostPageCacheTest {
+
+    private final PostPageCache postPageCache = new PostPageCache(new SimpleMeterRegistry(), 3, 20);
+
+    private final PostSearch firstPage = PostSearch.builder().page(1).size(5).build();
+
+    @Test
+    @DisplayName("같은 세대에서는 한 번만 조회하고, 세대가 바뀌면 다시 조회한다.")
+    void generation() {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        postPageCache.get(firstPage, () -> page("1", loads));
+        postPageCache.get(firstPage, () -> page("2", loads));
+        postPageCache.invalidate();
+        CachedPage page = postPageCache.get(firstPage, () -> page("3", loads));
+
+        // then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(page.getJson()).isEqualTo("3");
+    }
+
+    @Test
+    @DisplayName("같은 페이지를 동시에 조회하면 한 번만 조회한다.")
+    void coalesce() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<CachedPage>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> postPageCache.get(firstPage, () -> {
+            loading.countDown();
+            await(release);
+            return page("1", loads);
+        })));
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            futures.add(executor.submit(() -> postPageCache.get(firstPage, () -> page("2", loads))));
+        }
+        release.countDown();
+
+        // then
+        for (Future<CachedPage> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getJson()).isEqualTo("1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("조회에 실패하면 캐싱하지 않는다.")
+    void failure() {
+        // expected
+        assertThrows(IllegalStateException.class, () -> postPageCache.get(firstPage, () -> {
+            throw new IllegalStateException();
+        }));
+        assertThat(postPageCache.get(firstPage, () -> page("1", new AtomicInteger())).getJson()).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("커서, 검색어가 있거나 뒤 페이지, 큰 페이지는 캐싱하지 않는다.")
+    void cacheable() {
+        assertTrue(postPageCache.isCacheable(firstPage));
+        assertTrue(postPageCache.isCacheable(PostSearch.builder().page(3).size(20).summary(true).build()));
+        assertFalse(postPageCache.isCacheable(PostSearch.builder().page(4).size(5).build()));
+        assertFalse(postPageCache.isCacheable(PostSearch.builder().page(1).size(21).build()));
+        assertFalse(postPageCache.isCacheable(PostSearch.builder().after(PostCursor.encode(10L)).build()));
+        assertFalse(postPageCache.isCacheable(PostSearch.builder().query("스프링").build()));
+    }
+
+    private static CachedPage page(String json, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new CachedPage(json, List.of());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package study.hodolmanblogstudy.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import study.hodolmanblogstudy.repository.PostRepository;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * /actuator/prometheus 로 메트릭이 노출되는지 확인한다.
+ * 테스트에서는 기본적으로 메트릭 export가 꺼져 있기 때문에 @AutoConfigureObservability 로 켠다.
+ */
+@AutoConfigureObservability
+@AutoConfigureMockMvc
+@SpringBootTest
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @AfterEach
+    void after() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("API별 응답 시간, 서비스 메서드별 실행 시간, 캐시, Hibernate, 커넥션 풀 메트릭을 노출한다.")
+    void prometheus() throws Exception {
+        // given
+        String id = mockMvc.perform(post("/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"글 제목입니다.\", \"content\": \"글 내용입니다.\"}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc.perform(get("/posts/{postId}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/posts/{postId}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/posts?page=1&size=5")).andExpect(status().isOk());
+        // 목록 캐시(PostPageCache)의 max-size보다 큰 페이지는 캐시를 거치지 않고 스트리밍으로 응답한다.
+        mockMvc.perform(get("/posts?page=1&size=50")).andExpect(status().isOk());
+
+        // when
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // then
+        // API별 응답 시간 histogram
+        assertThat(metrics).contains("http_server_requests_seconds_bucket");
+        assertThat(metrics).contains("uri=\"/posts/{postId}\"");
+
+        // PostService 메서드별 실행 시간 histogram
+        assertThat(metrics).contains("post_service_seconds_bucket");
+        assertThat(metrics).contains("method=\"write\"");
+        assertThat(metrics).contains("method=\"getCached\"");
+        assertThat(metrics).contains("method=\"getCachedPage\"");
+        assertThat(metrics).contains("method=\"writeList\"");
+
+        // 글 1개 조회 캐시 hit / miss
+        assertThat(metrics).contains("cache_gets_total{cache=\"post\"");
+
+        // Hibernate 통계
+        assertThat(metrics).contains("hibernate_query_executions_total");
+        assertThat(metrics).contains("hibernate_entities_loads_total");
+        assertThat(metrics).contains("hibernate_flushes_total");
+
+        // 커넥션 풀 대기 시간
+        assertThat(metrics).contains("hikaricp_connections_acquire_seconds_bucket");
+    }
+}
@@ -0,0 +1,79 @@
+package study.hodolmanblogstudy.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.repository.PostRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 응답 압축(server.compression)은 Tomcat에서 처리하기 때문에 MockMvc 대신 실제 서버로 요청한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PostControllerCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void after() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("압축된 응답의 ETag(W/...)를 If-Match로 보내도 수정할 수 있다.")
+    void test1() throws Exception {
+        // given - min-response-size(2KB)보다 큰 글
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("가".repeat(2_000))
+                .build());
+        URI uri = URI.create("http://localhost:" + port + "/posts/" + post.getId());
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        String eTag = response.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+        assertThat(eTag).isEqualTo("W/\"" + post.getId() + "-0\"");
+
+        // when
+        int edited = patch(uri, eTag);
+
+        // then
+        assertThat(edited).isEqualTo(200);
+        assertThat(postRepository.findById(post.getId()).get().getTitle()).isEqualTo("수정된 제목");
+
+        // 이미 수정된 버전의 ETag
+        assertThat(patch(uri, eTag)).isEqualTo(412);
+    }
+
+    private int patch(URI uri, String ifMatch) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri)
+                                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                .header(HttpHeaders.IF_MATCH, ifMatch)
+                                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"title\": \"수정된 제목\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
@@ -11,20 +11,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.transaction.annotation.Transactional;
+import study.hodolmanblogstudy.counter.PostCounter;
 import study.hodolmanblogstudy.domain.Post;
 import study.hodolmanblogstudy.repository.PostRepository;
 import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostCursor;
 import study.hodolmanblogstudy.request.PostEdit;
+import study.hodolmanblogstudy.request.PostLookup;
+import study.hodolmanblogstudy.service.PostService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.hamcrest.Matchers.*;
@@ -44,6 +51,12 @@ class PostControllerTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostCounter postCounter;
+
     @BeforeEach
     void before() {
         postRepository.deleteAll();
@@ -334,4 +347,432 @@ class PostControllerTest {
                 .andDo(print()); //HTTP 요청에 대한 Handler 요약
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("글 목록 조회시 다음 페이지 커서를 헤더로 내려준다.")
+    void test12() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .toList();
+
+        postRepository.saveAll(requestPosts);
+
+        String nextCursor = mockMvc.perform(get("/posts?page=1&size=5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(PostCursor.NEXT_HEADER))
+                .andReturn()
+                .getResponse()
+                .getHeader(PostCursor.NEXT_HEADER);
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts")
+                        .param("size", "5")
+                        .param("after", nextCursor)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(5)))
+                .andExpect(jsonPath("$[0].title").value("제목 - 25"))
+                .andExpect(jsonPath("$[4].title").value("제목 - 21"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 글 목록 조회")
+    void test13() throws Exception {
+        mockMvc.perform(get("/posts")
+                        .param("after", "잘못된커서")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.validation.after").value("잘못된 커서입니다."))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 목록 요약 조회")
+    void test14() throws Exception {
+        // given
+        Post post = Post.builder()
+                .title("foo1")
+                .content("가".repeat(1000))
+                .build();
+        postRepository.save(post);
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts?page=1&size=5&summary=true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id").value(post.getId()))
+                .andExpect(jsonPath("$[0].title").value("foo1"))
+                .andExpect(jsonPath("$[0].content").value("가".repeat(200)))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 여러개 작성")
+    void test15() throws Exception {
+        // given
+        List<PostCreate> requests = List.of(
+                PostCreate.builder().title("제목 1").content("내용 1").build(),
+                PostCreate.builder().title("제목 2").content("").build(),
+                PostCreate.builder().title("제목 3").content("내용 3").build());
+
+        // expected (when + then)
+        mockMvc.perform(post("/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids.length()", is(3)))
+                .andExpect(jsonPath("$.ids[0]").isNumber())
+                .andExpect(jsonPath("$.ids[1]").value(nullValue()))
+                .andExpect(jsonPath("$.ids[2]").isNumber())
+                .andExpect(jsonPath("$.errors['1'].content").value("내용을 입력해주세요."))
+                .andDo(print());
+
+        assertThat(postRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("글 1개 조회시 ETag, Last-Modified를 내려주고 변경이 없으면 304로 응답한다.")
+    void test16() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        String eTag = mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + post.getId() + "-0\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 글의 조건부 조회는 글 내용을 읽지 않고 304로 응답한다.")
+    void test17() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + post.getId() + "-0\""))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+
+        // version만 조회했기 때문에 캐시에 저장되지 않는다.
+        assertFalse(postService.isCached(post.getId()));
+    }
+
+    @Test
+    @DisplayName("글이 수정되면 이전 ETag로 조회해도 200으로 응답한다.")
+    void test18() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        String eTag = mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"수정된 제목\"}"))
+                .andExpect(status().isOk());
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + post.getId() + "-1\""))
+                .andExpect(jsonPath("$.title").value("수정된 제목"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 목록도 ETag로 조건부 조회할 수 있다.")
+    void test19() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+
+        String eTag = mockMvc.perform(get("/posts?page=1&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts?page=1&size=5")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+
+        // 요약 목록은 다른 응답이므로 ETag가 다르다.
+        mockMvc.perform(get("/posts?page=1&size=5&summary=true")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        // 새 글이 추가되면 목록이 바뀐다. (목록 캐시의 세대는 flush 할 때 올라간다.)
+        postRepository.saveAndFlush(Post.builder()
+                .title("foo3")
+                .content("bar3")
+                .build());
+
+        mockMvc.perform(get("/posts?page=1&size=5")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(4)))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("이전 ETag로 글 수정시 412로 응답한다.")
+    void test20() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+        String eTag = "\"" + post.getId() + "-0\"";
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"수정된 제목\"}"))
+                .andExpect(status().isOk());
+
+        // expected (when + then)
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"다시 수정된 제목\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("412"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 여러개 삭제")
+    void test21() throws Exception {
+        // given
+        List<Post> posts = IntStream.range(0, 5)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(posts);
+
+        // expected (when + then)
+        mockMvc.perform(delete("/posts")
+                        .param("from", String.valueOf(posts.get(0).getId()))
+                        .param("to", String.valueOf(posts.get(2).getId())))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"))
+                .andDo(print());
+
+        mockMvc.perform(delete("/posts")
+                        .param("ids", posts.get(3).getId() + "," + posts.get(4).getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"))
+                .andDo(print());
+
+        assertThat(postRepository.count()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("글 목록 조회 - 전체 글 수, 전체 페이지 수 포함")
+    void test22() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 25)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+        postCounter.reconcile();
+
+        // expected (when + then)
+        mockMvc.perform(get("/posts?page=1&size=10&paged=true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()", is(10)))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.size").value(10))
+                .andExpect(jsonPath("$.totalCount").value(25))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(header().exists(PostCursor.NEXT_HEADER))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 목록 앞 페이지는 캐싱하고, 글이 등록/수정되면 바로 반영한다.")
+    void test23() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 10)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+
+        String eTag = mockMvc.perform(get("/posts?page=1&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("foo9"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // 캐시된 페이지도 같은 ETag, 헤더로 응답한다.
+        mockMvc.perform(get("/posts?page=1&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(PostCursor.NEXT_HEADER, PostCursor.encode(requestPosts.get(5).getId())))
+                .andExpect(jsonPath("$.length()", is(5)))
+                .andExpect(jsonPath("$[0].title").value("foo9"));
+
+        // when
+        postService.write(PostCreate.builder().title("새 글").content("내용").build());
+        postService.edit(requestPosts.get(8).getId(), PostEdit.builder().title("수정된 제목").build());
+
+        // then
+        mockMvc.perform(get("/posts?page=1&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("새 글"))
+                .andExpect(jsonPath("$[2].title").value("수정된 제목"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("없는 글은 DB 조회 없이 같은 404 응답을 반복하고, 새로 등록된 글은 바로 조회된다.")
+    void test24() throws Exception {
+        // given
+        Long missingId = -1L;
+
+        // expected
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/posts/{postId}", missingId))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.code").value("404"))
+                    .andExpect(jsonPath("$.message").value("존재하지 않는 글입니다."))
+                    .andExpect(jsonPath("$.validation").isEmpty());
+        }
+        assertTrue(postService.isCached(missingId));
+
+        // when
+        Long id = postService.write(PostCreate.builder().title("새 글").content("새 내용").build());
+
+        // then
+        mockMvc.perform(get("/posts/{postId}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("새 글"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("띄어쓰기, 자모로 바꿔 쓴 금지어도 찾아서 필드마다 모든 위치를 응답한다.")
+    void test25() throws Exception {
+        // given
+        PostCreate request = PostCreate.builder()
+                .title("바 보 제목")
+                .content("ㅂㅏㅂㅗ 그리고 바보")
+                .build();
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        // expected
+        mockMvc.perform(post("/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.title").value("제목에 금지어를 포함할 수 없습니다. 바보(0~3)"))
+                .andExpect(jsonPath("$.validation.content").value("내용에 금지어를 포함할 수 없습니다. 바보(0~4, 9~11)"))
+                .andDo(print());
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"바.보\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.content").value("내용에 금지어를 포함할 수 없습니다. 바보(0~3)"))
+                .andDo(print());
+
+        assertEquals(1L, postRepository.count());
+        assertThat(postRepository.findById(post.getId()).orElseThrow().getContent()).isEqualTo("bar");
+    }
+
+    @Test
+    @DisplayName("글 여러개 조회 - GET /posts?ids=, POST /posts/lookup 모두 요청 순서대로 응답하고 없는 글은 missingIds로 알려준다.")
+    void test26() throws Exception {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .collect(Collectors.toList()));
+        Long missingId = posts.get(2).getId() + 1_000_000L;
+        List<Long> ids = List.of(posts.get(2).getId(), missingId, posts.get(0).getId());
+
+        // expected
+        mockMvc.perform(get("/posts")
+                        .param("ids", ids.stream().map(String::valueOf).collect(Collectors.joining(","))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.posts.length()", is(2)))
+                .andExpect(jsonPath("$.posts[0].id").value(posts.get(2).getId()))
+                .andExpect(jsonPath("$.posts[0].title").value("foo2"))
+                .andExpect(jsonPath("$.posts[1].id").value(posts.get(0).getId()))
+                .andExpect(jsonPath("$.missingIds[0]").value(missingId))
+                .andDo(print());
+
+        mockMvc.perform(post("/posts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", ids))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts.length()", is(2)))
+                .andExpect(jsonPath("$.posts[0].content").value("bar2"))
+                .andExpect(jsonPath("$.missingIds.length()", is(1)))
+                .andDo(print());
+
+        mockMvc.perform(post("/posts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids",
+                                LongStream.rangeClosed(1, PostLookup.MAX_IDS + 1).boxed().toList()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.ids").value("한 번에 최대 1000개까지 조회할 수 있습니다."))
+                .andDo(print());
+    }
+}
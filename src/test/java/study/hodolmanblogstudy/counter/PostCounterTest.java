@@ -0,0 +1,72 @@
+package study.hodolmanblogstudy.counter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 글 수는 커밋된 뒤에 바뀌기 때문에 @Transactional 없이 테스트한다. (테스트 트랜잭션은 롤백되어 커밋되지 않는다.)
+ */
+@SpringBootTest
+class PostCounterTest {
+
+    @Autowired
+    private PostCounter postCounter;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void before() {
+        postRepository.deleteAll();
+        postCounter.reconcile();
+    }
+
+    @AfterEach
+    void after() {
+        postRepository.deleteAll();
+        postCounter.reconcile();
+    }
+
+    @Test
+    @DisplayName("글 등록, 삭제시 COUNT(*) 없이 글 수가 바뀐다.")
+    void count() {
+        // when
+        Long id = postService.write(PostCreate.builder().title("제목 1").content("내용 1").build());
+        postService.writeAll(List.of(
+                PostCreate.builder().title("제목 2").content("내용 2").build(),
+                PostCreate.builder().title("제목 3").content("내용 3").build()));
+        postService.delete(id);
+
+        // then
+        assertThat(postCounter.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("다른 곳에서 변경된 글 수는 reconcile 후에 반영된다.")
+    void reconcile() {
+        // given
+        postRepository.save(Post.builder().title("제목").content("내용").build());
+        assertThat(postCounter.get()).isEqualTo(0);
+
+        // when
+        postCounter.reconcile();
+
+        // then
+        assertThat(postCounter.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,194 @@
+package study.hodolmanblogstudy.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import study.hodolmanblogstudy.cache.CachedPage;
+import study.hodolmanblogstudy.cache.CachedPost;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostCursor;
+import study.hodolmanblogstudy.request.PostLookup;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostLookupResponse;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 읽기 / 쓰기 라우팅 - 주 DB, 복제 DB 역할의 H2 메모리 DB 2개
+ * 복제는 되지 않기 때문에 테이블만 복사하고, 복제 DB에는 제목이 다른 글을 직접 넣어서 어느 DB에서 읽었는지 구분한다.
+ * 트랜잭션 경계에 따라 라우팅되기 때문에 @Transactional 없이 테스트한다.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "blog.datasource.routing.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "blog.datasource.routing.replica-urls=jdbc:h2:mem:routing-replica",
+        "blog.datasource.routing.health-check-interval=3600000"
+})
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA_TITLE = "복제 DB 제목";
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void before() {
+        primary = new JdbcTemplate(routingDataSource.getResolvedDataSources().get(ReplicaRoutingDataSource.PRIMARY));
+        replica = new JdbcTemplate(routingDataSource.getResolvedDataSources().get("replica-1"));
+
+        // 주 DB의 스키마(ddl-auto)를 복제 DB에 만든다.
+        List<String> schema = primary.queryForList("script nodata", String.class);
+        replica.execute("drop all objects");
+        schema.forEach(replica::execute);
+    }
+
+    @AfterEach
+    void after() {
+        primary.update("delete from post");
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 복제 DB, 쓰기는 주 DB에서 처리한다.")
+    void route() {
+        // given
+        double replicaReads = routeCount("replica-1", "read");
+        Long id = postService.write(PostCreate.builder().title("주 DB 제목").content("내용").build());
+        insertIntoReplica(id);
+
+        // expected
+        assertThat(postService.get(id).getTitle()).isEqualTo(REPLICA_TITLE);
+        assertThat(primary.queryForObject("select title from post where id = ?", String.class, id))
+                .isEqualTo("주 DB 제목");
+        assertThat(routeCount("replica-1", "read")).isGreaterThan(replicaReads);
+        assertThat(routeCount(ReplicaRoutingDataSource.PRIMARY, "write")).isPositive();
+    }
+
+    @Test
+    @DisplayName("글을 쓴 클라이언트는 잠시 동안 읽기도 주 DB에서 처리한다.")
+    void readYourWrites() throws Exception {
+        // given
+        Cookie cookie = mockMvc.perform(post("/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"주 DB 제목\", \"content\": \"내용\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn()
+                .getResponse()
+                .getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        Long id = primary.queryForObject("select max(id) from post", Long.class);
+        insertIntoReplica(id);
+
+        // 커서가 있는 목록은 캐싱하지 않기 때문에 매번 DB에서 읽는다.
+        String after = PostCursor.encode(id + 1);
+
+        // expected
+        mockMvc.perform(get("/posts").param("after", after).param("size", "1").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("주 DB 제목"));
+
+        mockMvc.perform(get("/posts").param("after", after).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(REPLICA_TITLE));
+
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 60_000));
+        mockMvc.perform(get("/posts").param("after", after).param("size", "1").cookie(expired))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(REPLICA_TITLE));
+    }
+
+    @Test
+    @DisplayName("캐시를 채우는 조회는 복제 DB가 늦어도 주 DB에서 읽는다.")
+    void cacheLoad() throws Exception {
+        // given - 복제 DB에는 이전 내용이 남아있다.
+        Long id = postService.write(PostCreate.builder().title("주 DB 제목").content("내용").build());
+        insertIntoReplica(id);
+
+        // when
+        CachedPost cachedPost = postService.getCached(id);
+        CachedPage cachedPage = postService.getCachedPage(PostSearch.builder().page(1).size(5).build());
+
+        // then
+        assertThat(objectMapper.readTree(cachedPost.getJson()).get("title").asText()).isEqualTo("주 DB 제목");
+        assertThat(objectMapper.readTree(cachedPage.getJson()).get(0).get("title").asText()).isEqualTo("주 DB 제목");
+    }
+
+    @Test
+    @DisplayName("글 여러개 조회도 캐시에 없는 글은 주 DB에서 읽는다.")
+    void lookupLoad() throws Exception {
+        // given - 복제 DB에는 이전 내용이 남아있다.
+        Long id = postService.write(PostCreate.builder().title("주 DB 제목").content("내용").build());
+        insertIntoReplica(id);
+
+        // when
+        PostLookupResponse response = postService.lookup(PostLookup.builder().ids(List.of(id)).build());
+
+        // then
+        assertThat(response.getMissingIds()).isEmpty();
+        assertThat(objectMapper.readTree(response.getPosts().get(0).getJson()).get("title").asText()).isEqualTo("주 DB 제목");
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("복제 DB에 연결할 수 없으면 주 DB에서 읽는다.")
+    void unhealthyReplica() {
+        // given
+        Long id = postService.write(PostCreate.builder().title("주 DB 제목").content("내용").build());
+        insertIntoReplica(id);
+
+        // when
+        ((HikariDataSource) routingDataSource.getResolvedDataSources().get("replica-1")).close();
+        routingDataSource.checkReplicas();
+
+        // then
+        assertFalse(routingDataSource.isHealthy("replica-1"));
+        assertThat(postService.get(id).getTitle()).isEqualTo("주 DB 제목");
+    }
+
+    private void insertIntoReplica(Long id) {
+        replica.update("insert into post (id, title, content, version, modified_at) " +
+                "values (?, ?, '복제 DB 내용', 0, current_timestamp)", id, REPLICA_TITLE);
+    }
+
+    private double routeCount(String target, String type) {
+        return meterRegistry.get("datasource.route")
+                .tag("target", target)
+                .tag("type", type)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,113 @@
+package study.hodolmanblogstudy.domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.hodolmanblogstudy.migration.ContentCompressionMigration;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostResponse;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 글 내용 압축 저장 (blog.storage.compress-content=true)
+ * 실제 DB에 저장된 값을 확인해야 하기 때문에 @Transactional 없이 테스트한다.
+ */
+@SpringBootTest(properties = {
+        "blog.storage.compress-content=true",
+        "blog.storage.migration-interval=3600000"
+})
+class PostContentCompressionTest {
+
+    private static final String CONTENT = "오늘은 스프링 부트로 블로그를 만들면서 JPA와 QueryDSL을 공부했다. ".repeat(50);
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContentCompressionMigration migration;
+
+    @AfterEach
+    void after() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("글 내용은 압축해서 저장하고 조회할 때는 원문을 반환한다.")
+    void compress() {
+        // when
+        Long id = postService.write(PostCreate.builder()
+                .title("제목")
+                .content(CONTENT)
+                .build());
+
+        // then
+        String stored = rawContent(id);
+        assertThat(stored).startsWith(ContentCodec.MARKER);
+        assertThat(stored.length()).isLessThan(CONTENT.length());
+
+        assertThat(postService.get(id).getContent()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("요약 목록은 압축된 글과 기존 글 모두 앞부분만 반환한다.")
+    void summary() {
+        // given
+        postService.write(PostCreate.builder().title("압축된 글").content(CONTENT).build());
+        insertLegacy(1_000_000L, CONTENT);
+
+        // when
+        List<PostResponse> posts = postService.getList(PostSearch.builder()
+                .size(10)
+                .summary(true)
+                .build());
+
+        // then
+        assertThat(posts).hasSize(2)
+                .extracting(PostResponse::getContent)
+                .containsOnly(CONTENT.substring(0, 200));
+    }
+
+    @Test
+    @DisplayName("압축되지 않은 기존 글을 압축한다.")
+    void migrate() {
+        // given
+        insertLegacy(1_000_000L, CONTENT);
+        insertLegacy(1_000_001L, "짧은 글");
+
+        // when
+        int migrated = 0;
+        for (int count = migration.migrateBatch(); count > 0; count = migration.migrateBatch()) {
+            migrated += count;
+        }
+
+        // then
+        assertThat(migrated).isEqualTo(2);
+        assertThat(rawContent(1_000_000L)).startsWith(ContentCodec.MARKER);
+        assertThat(rawContent(1_000_001L)).isEqualTo("짧은 글");
+        assertThat(postService.get(1_000_000L).getContent()).isEqualTo(CONTENT);
+    }
+
+    private void insertLegacy(Long id, String content) {
+        jdbcTemplate.update("insert into post (id, title, content, version, modified_at) " +
+                "values (?, ?, ?, 0, current_timestamp)", id, "기존 글", content);
+    }
+
+    private String rawContent(Long id) {
+        return jdbcTemplate.queryForObject("select content from post where id = ?", String.class, id);
+    }
+}
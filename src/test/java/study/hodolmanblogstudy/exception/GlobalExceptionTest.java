@@ -0,0 +1,32 @@
+package study.hodolmanblogstudy.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionTest {
+
+    @Test
+    @DisplayName("도메인 예외는 스택 트레이스를 만들지 않고, 검증 오류가 있을 때만 validation을 만든다.")
+    void stackTraceAndValidation() {
+        // when
+        PostNotFound notFound = new PostNotFound();
+        InvalidRequest invalidRequest = new InvalidRequest("title", "제목에 바보를 포함할 수 없습니다.");
+
+        // then
+        assertThat(notFound.getStackTrace()).isEmpty();
+        assertThat(notFound.getValidation()).isEmpty();
+        assertThat(invalidRequest.getStackTrace()).isEmpty();
+        assertThat(invalidRequest.getValidation()).containsEntry("title", "제목에 바보를 포함할 수 없습니다.");
+    }
+
+    @Test
+    @DisplayName("검증 오류가 없는 InvalidRequest도 기본 메시지를 가진다.")
+    void invalidRequestMessage() {
+        // expected
+        assertThat(new InvalidRequest().getMessage()).isEqualTo("잘못된 요청입니다.");
+        assertThat(new InvalidRequest(new IllegalStateException()).getMessage()).isEqualTo("잘못된 요청입니다.");
+        assertThat(new InvalidRequest("title", "제목에 바보를 포함할 수 없습니다.").getMessage()).isEqualTo("잘못된 요청입니다.");
+    }
+}
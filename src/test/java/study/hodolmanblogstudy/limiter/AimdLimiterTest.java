@@ -0,0 +1,96 @@
+package study.hodolmanblogstudy.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimiterTest {
+
+    @Test
+    @DisplayName("한도를 넘는 요청은 바로 거절하고, 처리가 끝나면 다시 받는다.")
+    void reject() {
+        // given
+        AimdLimiter limiter = limiter(2, Duration.ofSeconds(10));
+
+        // expected
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(System.nanoTime(), false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("한도 가까이 사용 중일 때 응답이 빠르면 한도를 늘린다.")
+    void increase() {
+        // given
+        AimdLimiter limiter = limiter(4, Duration.ofSeconds(10));
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            limiter.release(System.nanoTime(), false);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("응답이 느리면 한도를 줄인다. 이미 처리 중이던 요청들이 느리게 끝나도 한 번만 줄인다.")
+    void decrease() throws Exception {
+        // given
+        AimdLimiter limiter = limiter(20, Duration.ofMillis(1));
+        Thread.sleep(5);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        Thread.sleep(5);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            limiter.release(start, false);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("5xx로 끝난 요청은 응답이 빨라도 한도를 줄인다. 최소 한도보다 줄지 않는다.")
+    void failed() throws Exception {
+        // given
+        AimdLimiter limiter = limiter(3, Duration.ofSeconds(10));
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(1);
+            limiter.tryAcquire();
+            limiter.release(System.nanoTime(), true);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    private static AimdLimiter limiter(int initialLimit, Duration latencyThreshold) {
+        return AimdLimiter.builder()
+                .budget("test")
+                .initialLimit(initialLimit)
+                .minLimit(2)
+                .maxLimit(100)
+                .latencyThreshold(latencyThreshold)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package study.hodolmanblogstudy.moderation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import study.hodolmanblogstudy.exception.InvalidRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BannedWordFilterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("겹치는 금지어를 포함해서 모든 금지어와 원래 글에서의 위치를 찾는다.")
+    void findAll() {
+        // given
+        BannedWordMatcher matcher = BannedWordMatcher.of(List.of("he", "she", "hers", "바보", "멍청이"));
+
+        // expected
+        assertThat(matcher.findAll("ushers", 100)).containsExactly(
+                new BannedWordMatcher.Match("she", 1, 4),
+                new BannedWordMatcher.Match("he", 2, 4),
+                new BannedWordMatcher.Match("hers", 2, 6));
+        assertThat(matcher.findAll("멍청이 바보 멍청이", 100)).containsExactly(
+                new BannedWordMatcher.Match("멍청이", 0, 3),
+                new BannedWordMatcher.Match("바보", 4, 6),
+                new BannedWordMatcher.Match("멍청이", 7, 10));
+        assertThat(matcher.findAll("바보".repeat(1_000), 10)).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("띄어쓰기, 문장 부호, 제로폭 문자, 자모 분리, 조합형, 전각 문자로 우회한 금지어도 찾는다.")
+    void evasion() {
+        // given
+        BannedWordMatcher matcher = BannedWordMatcher.of(List.of("바보", "spam"));
+
+        // expected
+        assertTrue(matcher.containsAny("바 보"));
+        assertTrue(matcher.containsAny("바.보"));
+        assertTrue(matcher.containsAny("바\u200B보"));
+        assertTrue(matcher.containsAny("ㅂㅏㅂㅗ"));
+        assertTrue(matcher.containsAny("\u1107\u1161\u1107\u1169"));
+        assertTrue(matcher.containsAny("ＳＰＡＭ"));
+        assertTrue(matcher.containsAny("S p-a_M"));
+        assertThat(matcher.findAll("ㅂㅏ ㅂㅗ", 100)).containsExactly(new BannedWordMatcher.Match("바보", 0, 5));
+    }
+
+    @Test
+    @DisplayName("음절 중간에서 시작하거나 끝나는 일치는 금지어가 아니다.")
+    void syllableBoundary() {
+        // given
+        BannedWordMatcher matcher = BannedWordMatcher.of(List.of("바보", "보"));
+
+        // expected
+        assertFalse(matcher.containsAny("바봉"));
+        assertFalse(matcher.containsAny("봉투"));
+        assertThat(matcher.findAll("바보야", 100)).containsExactly(
+                new BannedWordMatcher.Match("바보", 0, 2),
+                new BannedWordMatcher.Match("보", 1, 2));
+    }
+
+    @Test
+    @DisplayName("제목과 내용의 금지어를 필드마다 금지어별 위치로 응답한다.")
+    void validate() {
+        // given
+        BannedWordFilter filter = new BannedWordFilter(List.of("바보", "멍청이"), "");
+
+        // when
+        InvalidRequest e = assertThrows(InvalidRequest.class,
+                () -> filter.validate("바보 제목", "멍청이, 바보, 또 바보"));
+
+        // then
+        assertThat(e.getValidation())
+                .containsEntry("title", "제목에 금지어를 포함할 수 없습니다. 바보(0~2)")
+                .containsEntry("content", "내용에 금지어를 포함할 수 없습니다. 멍청이(0~3), 바보(5~7, 11~13)");
+        assertDoesNotThrow(() -> filter.validate("제목", null));
+    }
+
+    @Test
+    @DisplayName("위치는 필드마다 최대 개수까지만 응답한다.")
+    void truncate() {
+        // given
+        BannedWordFilter filter = new BannedWordFilter(List.of("바보"), "");
+
+        // when
+        InvalidRequest e = assertThrows(InvalidRequest.class,
+                () -> filter.validate("제목", "바보 ".repeat(100_000)));
+
+        // then
+        String message = e.getValidation().get("content");
+        assertThat(message).endsWith(" 외 더 있음");
+        assertThat(message.split("~")).hasSize(BannedWordFilter.MAX_REPORTED_MATCHES + 1);
+    }
+
+    @Test
+    @DisplayName("금지어 파일이 바뀌면 다시 읽고, 파일이 없으면 기본 금지어만 사용한다.")
+    void reload() throws Exception {
+        // given
+        Path dictionary = dir.resolve("banned-words.txt");
+        Files.writeString(dictionary, "# 금지어\n멍청이\n");
+        BannedWordFilter filter = new BannedWordFilter(List.of("바보"), dictionary.toString());
+        assertThrows(InvalidRequest.class, () -> filter.validate("멍청이", null));
+        assertDoesNotThrow(() -> filter.validate("얼간이", null));
+
+        // when
+        Files.writeString(dictionary, "# 금지어\n멍청이\n얼간이\n");
+        Files.setLastModifiedTime(dictionary, FileTime.fromMillis(System.currentTimeMillis() + 1_000));
+        filter.reloadIfModified();
+
+        // then
+        assertThat(filter.size()).isEqualTo(3);
+        assertThrows(InvalidRequest.class, () -> filter.validate("얼간이", null));
+
+        // when
+        Files.delete(dictionary);
+        filter.reloadIfModified();
+
+        // then
+        assertThat(filter.size()).isEqualTo(1);
+        assertThrows(InvalidRequest.class, () -> filter.validate("바보", null));
+        assertDoesNotThrow(() -> filter.validate("멍청이", null));
+    }
+}
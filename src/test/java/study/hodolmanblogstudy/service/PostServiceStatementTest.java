@@ -0,0 +1,207 @@
+package study.hodolmanblogstudy.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostEdit;
+import study.hodolmanblogstudy.request.PostSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * PostService 메서드별로 실행되는 SQL 수와 content(LOB) 컬럼을 읽고 쓰는지 확인한다.
+ * Hibernate StatementInspector로 실행되는 SQL을 기록한다.
+ * 커밋 후 작업(afterCommit)까지 확인하기 위해 @Transactional 없이 테스트한다.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.hodolmanblogstudy.service.PostServiceStatementTest$SqlRecorder")
+class PostServiceStatementTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long id;
+
+    @BeforeEach
+    void before() {
+        postRepository.deleteAll();
+        id = postRepository.save(Post.builder()
+                .title("제목")
+                .content("내용".repeat(1000))
+                .build()).getId();
+
+        SqlRecorder.start();
+    }
+
+    @AfterEach
+    void after() {
+        SqlRecorder.stop();
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("글 작성 - INSERT 1번, 글 조회 없음")
+    void write() {
+        // when
+        postService.write(PostCreate.builder().title("제목").content("내용").build());
+
+        // then
+        List<String> statements = postStatements();
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).startsWith("insert into post");
+    }
+
+    @Test
+    @DisplayName("글 1개 조회 - SELECT 1번 (내용 포함)")
+    void get() {
+        // when
+        postService.get(id);
+
+        // then
+        List<String> statements = postStatements();
+        assertThat(statements).hasSize(1);
+        assertThat(selectColumns(statements.get(0))).contains("content");
+    }
+
+    @Test
+    @DisplayName("글 버전 조회 - SELECT 1번 (내용 제외)")
+    void getVersion() {
+        // when
+        postService.getVersion(id);
+
+        // then
+        List<String> statements = postStatements();
+        assertThat(statements).hasSize(1);
+        assertThat(selectColumns(statements.get(0))).doesNotContain("content");
+    }
+
+    @Test
+    @DisplayName("글 목록 조회 - SELECT 1번 (글마다 내용을 따로 조회하지 않는다.)")
+    void getList() {
+        // given
+        postRepository.save(Post.builder().title("제목 2").content("내용 2").build());
+        SqlRecorder.start();
+
+        // when
+        postService.getList(PostSearch.builder().page(1).size(10).build());
+        postService.getList(PostSearch.builder().page(1).size(10).summary(true).build());
+
+        // then
+        assertThat(postStatements()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("글 제목 수정 - 조회 없이 UPDATE 1번 (내용은 쓰지 않는다.) + 커밋 후 검색 인덱스용 SELECT 1번")
+    void edit() {
+        // when
+        postService.edit(id, PostEdit.builder().title("수정된 제목").build());
+
+        // then
+        List<String> statements = postStatements();
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).startsWith("update post");
+        assertThat(statements.get(0)).doesNotContain("content");
+        assertThat(statements.get(1)).startsWith("select");
+    }
+
+    @Test
+    @DisplayName("글 삭제 - 조회 없이 DELETE 1번")
+    void delete() {
+        // when
+        postService.delete(id);
+
+        // then
+        List<String> statements = postStatements();
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).startsWith("delete from post");
+    }
+
+    @Test
+    @DisplayName("엔티티 조회시 내용은 getContent()를 호출할 때 조회한다.")
+    void lazyContent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // when
+            Post post = postRepository.findById(id).orElseThrow();
+
+            // then
+            assertThat(post.getTitle()).isEqualTo("제목");
+            assertThat(postStatements()).hasSize(1);
+            assertThat(selectColumns(postStatements().get(0))).doesNotContain("content");
+
+            assertThat(post.getContent()).isEqualTo("내용".repeat(1000));
+            assertThat(postStatements()).hasSize(2);
+            assertThat(selectColumns(postStatements().get(1))).contains("content");
+        });
+    }
+
+    /**
+     * post 테이블에 실행된 SQL (시퀀스 조회 등은 제외)
+     */
+    private List<String> postStatements() {
+        return SqlRecorder.statements().stream()
+                .filter(sql -> sql.contains(" post ") || sql.startsWith("insert into post") || sql.startsWith("update post"))
+                .toList();
+    }
+
+    /**
+     * select ~ from 사이의 컬럼 이름
+     */
+    private List<String> selectColumns(String sql) {
+        String columns = sql.substring("select".length(), sql.indexOf(" from "));
+        List<String> names = new ArrayList<>();
+        for (String column : columns.split(",")) {
+            String name = column.trim();
+            names.add(name.substring(name.lastIndexOf('.') + 1));
+        }
+        return names;
+    }
+
+    /**
+     * 테스트 스레드에서 실행된 SQL만 기록한다. (스케줄러 등 다른 스레드의 SQL 제외)
+     * Hibernate가 기본 생성자로 직접 생성하기 때문에 static으로 저장한다.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        private static volatile Thread target;
+
+        static void start() {
+            STATEMENTS.clear();
+            target = Thread.currentThread();
+        }
+
+        static void stop() {
+            target = null;
+        }
+
+        static List<String> statements() {
+            return List.copyOf(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == target) {
+                STATEMENTS.add(sql.toLowerCase());
+            }
+            return sql;
+        }
+    }
+}
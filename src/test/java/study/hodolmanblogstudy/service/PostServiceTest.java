@@ -1,5 +1,8 @@
 package study.hodolmanblogstudy.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,14 +11,27 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import study.hodolmanblogstudy.cache.PostCache;
 import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.exception.InvalidRequest;
 import study.hodolmanblogstudy.exception.PostNotFound;
+import study.hodolmanblogstudy.exception.PostPreconditionFailed;
 import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostBulkDelete;
+import study.hodolmanblogstudy.request.PostBulkEdit;
 import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostCursor;
 import study.hodolmanblogstudy.request.PostEdit;
+import study.hodolmanblogstudy.request.PostLookup;
 import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.CacheStatsResponse;
+import study.hodolmanblogstudy.resposne.PostBatchResponse;
+import study.hodolmanblogstudy.resposne.PostLookupResponse;
 import study.hodolmanblogstudy.resposne.PostResponse;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -32,6 +48,12 @@ class PostServiceTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     @DisplayName("글 작성")
     void test1() {
@@ -239,4 +261,559 @@ class PostServiceTest {
         assertThatThrownBy(() -> postService.get(requestPost.getId() + 1L))
                 .isInstanceOf(PostNotFound.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("커서로 다음 페이지 조회")
+    void test9() {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .toList();
+
+        postRepository.saveAll(requestPosts);
+
+        // 26번째 글까지 본 상태
+        PostSearch postSearch = PostSearch.builder()
+                .size(5)
+                .after(PostCursor.encode(requestPosts.get(25).getId()))
+                .build();
+
+        //when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        //then
+        assertThat(posts.size()).isEqualTo(5);
+        assertThat(posts.get(0).getTitle()).isEqualTo("제목 - 25");
+        assertThat(posts.get(4).getTitle()).isEqualTo("제목 - 21");
+    }
+
+    @Test
+    @DisplayName("커서로 이전 페이지 조회")
+    void test10() {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .toList();
+
+        postRepository.saveAll(requestPosts);
+
+        PostSearch postSearch = PostSearch.builder()
+                .size(5)
+                .before(PostCursor.encode(requestPosts.get(20).getId()))
+                .build();
+
+        //when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        //then
+        // 이전 페이지도 최신 글이 먼저 오도록 id desc 정렬을 유지한다.
+        assertThat(posts.size()).isEqualTo(5);
+        assertThat(posts.get(0).getTitle()).isEqualTo("제목 - 26");
+        assertThat(posts.get(4).getTitle()).isEqualTo("제목 - 22");
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 조회")
+    void test11() {
+        PostSearch postSearch = PostSearch.builder()
+                .after("잘못된커서")
+                .build();
+
+        assertThatThrownBy(() -> postService.getList(postSearch))
+                .isInstanceOf(InvalidRequest.class);
+    }
+
+    @Test
+    @DisplayName("글 목록 요약 조회 - 내용은 앞부분만 조회한다.")
+    void test12() {
+        // given
+        Post requestPost = Post.builder()
+                .title("foo1")
+                .content("가".repeat(1000))
+                .build();
+
+        postRepository.save(requestPost);
+
+        PostSearch postSearch = PostSearch.builder()
+                .size(5)
+                .summary(true)
+                .build();
+
+        //when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        //then
+        assertThat(posts.size()).isEqualTo(1);
+        assertThat(posts.get(0).getId()).isEqualTo(requestPost.getId());
+        assertThat(posts.get(0).getTitle()).isEqualTo("foo1");
+        assertThat(posts.get(0).getContent()).isEqualTo("가".repeat(200));
+    }
+
+    @Test
+    @DisplayName("글 1개 조회시 직렬화된 응답을 캐시한다.")
+    void test13() throws Exception {
+        // given
+        Post requestPost = Post.builder()
+                .title("foo1")
+                .content("bar1")
+                .build();
+
+        postRepository.save(requestPost);
+
+        // when
+        CacheStatsResponse before = postCache.stats();
+        byte[] first = postService.getCached(requestPost.getId()).getJson();
+        byte[] second = postService.getCached(requestPost.getId()).getJson();
+        CacheStatsResponse after = postCache.stats();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(objectMapper.readTree(first).get("title").asText()).isEqualTo("foo1");
+        assertThat(after.getMissCount() - before.getMissCount()).isEqualTo(1);
+        assertThat(after.getHitCount() - before.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("글 수정시 캐시가 삭제된다.")
+    void test14() throws Exception {
+        // given
+        Post post = Post.builder()
+                .title("foo1")
+                .content("bar1")
+                .build();
+        postRepository.save(post);
+        postService.getCached(post.getId());
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("foo2")
+                .content("bar2")
+                .build();
+
+        //when
+        postService.edit(post.getId(), postEdit);
+
+        //then
+        byte[] json = postService.getCached(post.getId()).getJson();
+        assertThat(objectMapper.readTree(json).get("title").asText()).isEqualTo("foo2");
+        assertThat(objectMapper.readTree(json).get("content").asText()).isEqualTo("bar2");
+    }
+
+    @Test
+    @DisplayName("글 여러개 작성 - 검증에 실패한 글만 제외하고 저장한다.")
+    void test15() {
+        // given
+        List<PostCreate> postCreates = List.of(
+                PostCreate.builder().title("제목 1").content("내용 1").build(),
+                PostCreate.builder().title("").content("내용 2").build(),
+                PostCreate.builder().title("바보 제목").content("내용 3").build(),
+                PostCreate.builder().title("제목 4").content("내용 4").build());
+
+        // when
+        PostBatchResponse response = postService.writeAll(postCreates);
+
+        // then
+        assertThat(postRepository.count()).isEqualTo(2);
+        assertThat(response.getIds()).hasSize(4);
+        assertThat(response.getIds().get(1)).isNull();
+        assertThat(response.getIds().get(2)).isNull();
+        assertThat(response.getErrors()).containsOnlyKeys(1, 2);
+        assertThat(response.getErrors().get(1)).containsEntry("title", "제목을 입력해주세요.");
+        assertThat(response.getErrors().get(2)).containsEntry("title", "제목에 금지어를 포함할 수 없습니다. 바보(0~2)");
+
+        Post first = postRepository.findById(response.getIds().get(0)).orElseThrow();
+        Post last = postRepository.findById(response.getIds().get(3)).orElseThrow();
+        assertThat(first.getTitle()).isEqualTo("제목 1");
+        assertThat(last.getTitle()).isEqualTo("제목 4");
+    }
+
+    @Test
+    @DisplayName("전체 글 내보내기 - 한 줄에 글 1개씩 id 순서로 내보낸다.")
+    void test16() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 4)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .toList();
+
+        postRepository.saveAll(requestPosts);
+
+        // when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        postService.export(out);
+
+        // then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < 3; i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertThat(line.get("id").asLong()).isEqualTo(requestPosts.get(i).getId());
+            assertThat(line.get("title").asText()).isEqualTo("제목 - " + (i + 1));
+            assertThat(line.get("content").asText()).isEqualTo("내용 - " + (i + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("글 검색 - 형태소 단위로 검색하고 관련도 순서로 정렬한다.")
+    void test17() {
+        // given
+        Post springPost = Post.builder()
+                .title("스프링 블로그 만들기")
+                .content("스프링 부트로 블로그를 만들어봅시다.")
+                .build();
+
+        Post jpaPost = Post.builder()
+                .title("JPA 정리")
+                .content("블로그 글을 저장할 때 영속성 컨텍스트를 사용합니다.")
+                .build();
+
+        Post otherPost = Post.builder()
+                .title("오늘의 일기")
+                .content("날씨가 좋았다.")
+                .build();
+
+        postRepository.saveAll(List.of(springPost, jpaPost, otherPost));
+        postService.rebuildSearchIndex();
+
+        // when
+        List<PostResponse> blogPosts = postService.getList(PostSearch.builder()
+                .size(10)
+                .query("블로그")
+                .build());
+
+        List<PostResponse> diaryPosts = postService.getList(PostSearch.builder()
+                .size(10)
+                .query("일기를")
+                .build());
+
+        // then
+        // 제목과 내용 모두 "블로그"가 있는 글이 내용에만 있는 글보다 먼저 나온다.
+        assertThat(blogPosts).extracting(PostResponse::getId)
+                .containsExactly(springPost.getId(), jpaPost.getId());
+
+        // "일기를" -> "일기" + "를" 로 분석된다.
+        assertThat(diaryPosts).extracting(PostResponse::getId)
+                .containsExactly(otherPost.getId());
+    }
+
+    @Test
+    @DisplayName("글 제목만 수정 - UPDATE 한 번으로 수정하고 version이 증가한다.")
+    void test18() {
+        // given
+        Post post = Post.builder()
+                .title("foo1")
+                .content("bar1")
+                .build();
+        postRepository.save(post);
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("foo2")
+                .build();
+
+        // when
+        postService.edit(post.getId(), postEdit);
+
+        // then
+        Post changedPost = postRepository.findById(post.getId())
+                .orElseThrow(() -> new RuntimeException("글이 존재하지 않습니다. id = " + post.getId()));
+
+        assertThat(changedPost.getTitle()).isEqualTo("foo2");
+        assertThat(changedPost.getContent()).isEqualTo("bar1");
+        assertThat(changedPost.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("글 수정 - 버전이 다르면 수정하지 않는다.")
+    void test19() {
+        // given
+        Post post = Post.builder()
+                .title("foo1")
+                .content("bar1")
+                .build();
+        postRepository.save(post);
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("foo2")
+                .build();
+
+        // expected
+        assertThrows(PostPreconditionFailed.class, () -> postService.edit(post.getId(), postEdit, 5L));
+        postService.edit(post.getId(), postEdit, 0L);
+
+        assertThat(postRepository.findById(post.getId()).get().getTitle()).isEqualTo("foo2");
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 글 수정")
+    void test20() {
+        // given
+        PostEdit postEdit = PostEdit.builder()
+                .title("foo2")
+                .build();
+
+        // expected
+        assertThrows(PostNotFound.class, () -> postService.edit(-1L, postEdit));
+        assertThrows(PostNotFound.class, () -> postService.edit(-1L, postEdit, 0L));
+    }
+
+    @Test
+    @DisplayName("글 여러개를 한 번에 수정")
+    void test21() {
+        // given
+        List<Post> posts = IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .toList();
+        postRepository.saveAll(posts);
+
+        List<Long> ids = List.of(posts.get(0).getId(), posts.get(1).getId(), -1L);
+
+        // when
+        long updated = postService.editAll(PostBulkEdit.builder()
+                .ids(ids)
+                .title("공지")
+                .build());
+
+        // then
+        assertThat(updated).isEqualTo(2);
+        assertThat(postRepository.findAll())
+                .extracting(Post::getTitle, Post::getContent)
+                .containsExactlyInAnyOrder(
+                        tuple("공지", "bar0"),
+                        tuple("공지", "bar1"),
+                        tuple("foo2", "bar2"));
+    }
+
+    @Test
+    @DisplayName("글 여러개 삭제 - id 목록")
+    void test22() {
+        // given
+        List<Post> posts = IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .toList();
+        postRepository.saveAll(posts);
+
+        // when
+        long deleted = postService.deleteAll(PostBulkDelete.builder()
+                .ids(List.of(posts.get(0).getId(), posts.get(2).getId(), -1L))
+                .build());
+
+        // then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(postRepository.findAll()).extracting(Post::getId)
+                .containsExactly(posts.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("글 여러개 삭제 - id 범위 (DELETE 1000개씩 나눠서 삭제)")
+    void test23() {
+        // given
+        List<Post> posts = IntStream.range(0, 2500)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .toList();
+        postRepository.saveAll(posts);
+
+        Long firstId = posts.get(0).getId();
+        Long lastId = posts.get(2399).getId();
+
+        // when
+        long deleted = postService.deleteAll(PostBulkDelete.builder()
+                .from(firstId)
+                .to(lastId)
+                .build());
+
+        // then
+        assertThat(deleted).isEqualTo(2400);
+        assertThat(postRepository.count()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("글 여러개 삭제 - id 목록과 범위 중 하나만 입력해야 한다.")
+    void test24() {
+        // expected
+        assertThrows(InvalidRequest.class, () -> postService.deleteAll(PostBulkDelete.builder().build()));
+        assertThrows(InvalidRequest.class, () -> postService.deleteAll(PostBulkDelete.builder()
+                .ids(List.of(1L))
+                .from(1L)
+                .to(2L)
+                .build()));
+        assertThrows(InvalidRequest.class, () -> postService.deleteAll(PostBulkDelete.builder()
+                .from(10L)
+                .to(1L)
+                .build()));
+    }
+
+    @Test
+    @DisplayName("글 목록을 스트리밍으로 쓴 결과는 List로 조회해서 직렬화한 결과와 같다.")
+    void test25() throws Exception {
+        // given
+        List<Post> posts = IntStream.range(0, 30)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .toList();
+        postRepository.saveAll(posts);
+
+        for (PostSearch postSearch : List.of(
+                PostSearch.builder().page(2).size(10).build(),
+                PostSearch.builder().size(10).summary(true).build(),
+                PostSearch.builder().size(10).after(PostCursor.encode(posts.get(20).getId())).build(),
+                PostSearch.builder().size(10).before(PostCursor.encode(posts.get(5).getId())).build())) {
+            // when
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                postService.writeList(postSearch, generator);
+            }
+
+            // then
+            assertThat(out.toString(StandardCharsets.UTF_8))
+                    .isEqualTo(objectMapper.writeValueAsString(postService.getList(postSearch)));
+        }
+    }
+
+    @Test
+    @DisplayName("글 여러개 조회 - 요청 순서대로 응답하고, 없는 글은 missingIds로 알려준다. (IN 절을 나눠서 조회)")
+    void test27() throws Exception {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("foo" + i)
+                        .content("bar" + i)
+                        .build())
+                .toList());
+
+        List<Long> ids = new ArrayList<>();
+        ids.add(posts.get(2).getId());
+        for (long i = 0; i < PostLookup.MAX_IDS - 3; i++) {
+            ids.add(1_000_000_000L + i);
+        }
+        ids.add(posts.get(0).getId());
+        ids.add(posts.get(1).getId());
+
+        // when
+        PostLookupResponse response = postService.lookup(PostLookup.builder().ids(ids).build());
+
+        // then
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeTo(out);
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+
+        assertThat(json.get("posts")).hasSize(3);
+        assertThat(json.get("posts").get(0).get("id").asLong()).isEqualTo(posts.get(2).getId());
+        assertThat(json.get("posts").get(0).get("title").asText()).isEqualTo("foo2");
+        assertThat(json.get("posts").get(1).get("title").asText()).isEqualTo("foo0");
+        assertThat(json.get("posts").get(2).get("title").asText()).isEqualTo("foo1");
+        assertThat(json.get("missingIds")).hasSize(PostLookup.MAX_IDS - 3);
+        assertThat(json.get("missingIds").get(0).asLong()).isEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("글 여러개 조회는 캐시를 거친다. 수정된 글은 다시 조회한다.")
+    void test28() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+        Long missingId = post.getId() + 1_000_000L;
+        PostLookup postLookup = PostLookup.builder().ids(List.of(post.getId(), missingId)).build();
+
+        // when
+        postService.lookup(postLookup);
+
+        // then
+        assertTrue(postService.isCached(post.getId()));
+        assertTrue(postService.isCached(missingId));
+        assertThrows(PostNotFound.class, () -> postService.getCached(missingId));
+
+        // when
+        postService.edit(post.getId(), PostEdit.builder().title("수정한 제목").build());
+        PostLookupResponse response = postService.lookup(postLookup);
+
+        // then
+        assertThat(objectMapper.readTree(response.getPosts().get(0).getJson()).get("title").asText())
+                .isEqualTo("수정한 제목");
+        assertThat(response.getMissingIds()).containsExactly(missingId);
+        assertThrows(InvalidRequest.class, () -> postService.lookup(PostLookup.builder().ids(List.of()).build()));
+    }
+
+    @Test
+    @DisplayName("검색 결과에서 삭제된 글은 페이지를 자르기 전에 제외한다.")
+    void test29() {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 5)
+                .mapToObj(i -> Post.builder()
+                        .title("블로그 글 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .toList();
+
+        postRepository.saveAll(requestPosts);
+        postService.rebuildSearchIndex();
+
+        // 검색 인덱스에는 남아있는 삭제
+        Post deletedPost = requestPosts.get(1);
+        postRepository.delete(deletedPost);
+
+        // when
+        List<PostResponse> firstPage = postService.getList(PostSearch.builder()
+                .page(1)
+                .size(2)
+                .query("블로그")
+                .build());
+
+        List<PostResponse> secondPage = postService.getList(PostSearch.builder()
+                .page(2)
+                .size(2)
+                .query("블로그")
+                .build());
+
+        // then
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(1);
+        assertThat(firstPage).extracting(PostResponse::getId)
+                .doesNotContain(deletedPost.getId())
+                .doesNotContainAnyElementsOf(secondPage.stream().map(PostResponse::getId).toList());
+        assertThat(secondPage.get(0).getId()).isNotEqualTo(deletedPost.getId());
+    }
+
+    @Test
+    @DisplayName("검색은 잘못된 size, page나 검색 깊이를 넘는 페이지를 요청하면 InvalidRequest를 던진다.")
+    void test30() {
+        // expected
+        assertThrows(InvalidRequest.class, () -> postService.getList(PostSearch.builder()
+                .size(-5)
+                .query("블로그")
+                .build()));
+        assertThrows(InvalidRequest.class, () -> postService.getList(PostSearch.builder()
+                .size(2_000_000_000)
+                .query("블로그")
+                .build()));
+        assertThrows(InvalidRequest.class, () -> postService.getList(PostSearch.builder()
+                .page(Integer.MAX_VALUE)
+                .size(10)
+                .query("블로그")
+                .build()));
+        assertThrows(InvalidRequest.class, () -> postService.getList(PostSearch.builder()
+                .page(PostSearch.MAX_SEARCH_DEPTH / 10 + 1)
+                .size(10)
+                .query("블로그")
+                .build()));
+    }
+}
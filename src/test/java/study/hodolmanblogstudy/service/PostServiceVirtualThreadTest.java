@@ -0,0 +1,102 @@
+package study.hodolmanblogstudy.service;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.request.PostEdit;
+import study.hodolmanblogstudy.request.PostSearch;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 가상 스레드 모드에서 Hibernate/H2/HikariCP 경로가 캐리어 스레드를 붙잡지(pinning) 않는지 확인한다.
+ * synchronized 블록 안에서 I/O 대기나 락 대기가 발생하면 가상 스레드가 캐리어 스레드에서 내려오지 못한다.
+ * -> 캐리어 스레드(= CPU 코어 수)가 모두 붙잡히면 가상 스레드를 써도 처리량이 오히려 떨어진다.
+ *
+ * JFR의 jdk.VirtualThreadPinned 이벤트로 pinning을 감지한다.
+ * 이벤트 시간에는 GC, safepoint 멈춤도 포함되기 때문에 부하가 큰 장비에서는 짧은 pinning도 기준을 넘을 수 있다.
+ * -> 시간 측정 테스트와 함께 따로 실행한다. ./gradlew benchmark --tests '*PostServiceVirtualThreadTest'
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class PostServiceVirtualThreadTest {
+
+    /**
+     * 이보다 짧은 pinning은 무시한다. (JFR 기본값)
+     */
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @AfterEach
+    void after() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("가상 스레드에서 글 작성/조회/수정/삭제시 캐리어 스레드 pinning이 발생하지 않는다.")
+    void noPinning() throws Exception {
+        List<String> pinnedEvents = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned")
+                    .withThreshold(PINNED_THRESHOLD)
+                    .withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedEvents.add(describe(event)));
+            recording.startAsync();
+
+            // 커넥션 풀(기본 10개)보다 훨씬 많은 가상 스레드가 동시에 DB를 사용한다.
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = IntStream.range(0, THREADS)
+                        .mapToObj(i -> executor.submit(() -> crud(i)))
+                        .toList();
+
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            // 남은 이벤트까지 모두 처리한 뒤 멈춘다.
+            recording.stop();
+        }
+
+        assertThat(pinnedEvents).isEmpty();
+    }
+
+    private void crud(int i) {
+        Long id = postService.write(PostCreate.builder()
+                .title("제목 - " + i)
+                .content("내용 - " + i)
+                .build());
+
+        postService.getCached(id);
+        postService.getList(PostSearch.builder().page(1).size(5).build());
+        postService.edit(id, PostEdit.builder().title("수정 - " + i).build());
+        postService.delete(id);
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getDuration() + " " + (event.getStackTrace() != null ? event.getStackTrace().getFrames() : "");
+    }
+}
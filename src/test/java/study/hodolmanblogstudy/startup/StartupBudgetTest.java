@@ -0,0 +1,73 @@
+package study.hodolmanblogstudy.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 시작 시간 예산 - 빈, 설정이 늘어나면서 시작 시간이 조금씩 길어지는 것을 잡는다.
+ * 같은 JVM에서 두 번째로 시작하기 때문에 (클래스 로딩, JIT가 어느 정도 끝난 상태) 실제 콜드 스타트보다 빠르다.
+ * -> 콜드 스타트 비교는 StartupBenchmarkTest, ./gradlew runFastStart 로 확인한다.
+ */
+class StartupBudgetTest {
+
+    /**
+     * faststart 프로필 시작 시간 예산 (CI 장비 측정값에 여유를 둔 값)
+     */
+    private static final Duration BUDGET = Duration.ofSeconds(10);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("faststart 프로필은 스키마를 만들지 않고 예산 안에 시작하며, 시작 시간 보고서를 남긴다.")
+    void budget() {
+        // given - 기본 프로필로 스키마를 만든다. (ddl-auto: create)
+        String url = "jdbc:h2:file:" + dir.resolve("startup");
+        Started create = start(url, "default");
+
+        // when
+        Started fast = start(url, "faststart");
+
+        // then
+        assertThat(create.steps()).contains(RecordingSchemaManagementTool.STEP_PREFIX + "create");
+        assertThat(fast.steps()).noneMatch(step -> step.startsWith(RecordingSchemaManagementTool.STEP_PREFIX));
+
+        assertThat(fast.report().getPhases()).containsKeys("jpa.entityManagerFactory", "jpa.metamodel", "querydsl");
+        assertThat(fast.report().getSlowestSteps()).isNotEmpty();
+        assertThat(fast.report().getTotalMillis()).isBetween(0L, BUDGET.toMillis());
+        assertThat(dir.resolve("faststart-report.json")).exists();
+    }
+
+    private Started start(String url, String profile) {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10_000);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .applicationStartup(applicationStartup)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--blog.startup.report-path=" + dir.resolve(profile + "-report.json"));
+
+        try {
+            List<String> steps = applicationStartup.getBufferedTimeline().getEvents().stream()
+                    .map(event -> event.getStartupStep().getName())
+                    .toList();
+            return new Started(context.getBean(StartupReporter.class).getReport(), steps);
+        } finally {
+            context.close();
+        }
+    }
+
+    private record Started(StartupReport report, List<String> steps) {
+    }
+}
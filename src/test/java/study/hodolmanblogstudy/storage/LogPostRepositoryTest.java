@@ -0,0 +1,193 @@
+package study.hodolmanblogstudy.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.request.PostCursor;
+import study.hodolmanblogstudy.request.PostSearch;
+import study.hodolmanblogstudy.resposne.PostResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogPostRepositoryTest {
+
+    /**
+     * 구간 경계를 넘는 경우도 확인하기 위해 작은 구간을 사용한다.
+     */
+    private static final int REGION_SIZE = 4096;
+
+    @TempDir
+    Path dir;
+
+    private LogPostRepository repository;
+
+    @AfterEach
+    void after() {
+        if (repository != null) {
+            repository.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("다시 열면 로그를 읽어서 같은 글, 같은 버전을 복구한다.")
+    void reopen() {
+        // given
+        repository = open();
+        List<Long> ids = repository.saveAllInBatch(posts(100));
+        repository.updatePost(ids.get(0), "수정한 제목", null, 0L);
+
+        // when
+        repository = reopen();
+
+        // then
+        assertThat(repository.count()).isEqualTo(100);
+        assertThat(repository.getDetail(ids.get(0)).getTitle()).isEqualTo("수정한 제목");
+        assertThat(repository.getDetail(ids.get(0)).getContent()).isEqualTo("내용 0");
+        assertThat(repository.getVersion(ids.get(0)).getVersion()).isEqualTo(1L);
+        assertThat(repository.getDetail(ids.get(99)).getContent()).isEqualTo("내용 99");
+    }
+
+    @Test
+    @DisplayName("쓰다가 멈춘 마지막 레코드는 잘라내고, 그 앞의 글은 그대로 복구한다.")
+    void tornWrite() throws Exception {
+        // given
+        repository = open();
+        List<Long> ids = repository.saveAllInBatch(posts(10));
+        long end = repository.getLogBytes();
+        repository.destroy();
+
+        // length는 쓰였지만 crc, payload가 쓰이지 않은 레코드
+        try (FileChannel channel = FileChannel.open(logPath(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 100), end);
+        }
+
+        // when
+        repository = open();
+        Long newId = repository.save(Post.builder().title("새 글").content("새 내용").build()).getId();
+        repository = reopen();
+
+        // then
+        assertThat(repository.count()).isEqualTo(11);
+        assertThat(repository.getDetail(ids.get(9)).getTitle()).isEqualTo("제목 9");
+        assertThat(repository.getDetail(newId).getTitle()).isEqualTo("새 글");
+    }
+
+    @Test
+    @DisplayName("삭제한 글은 다시 열어도 없고, 삭제한 글의 id는 다시 사용하지 않는다.")
+    void tombstone() {
+        // given
+        repository = open();
+        List<Long> ids = repository.saveAllInBatch(posts(3));
+
+        // when
+        assertThat(repository.deletePost(ids.get(2))).isEqualTo(1);
+        assertThat(repository.deletePost(ids.get(2))).isEqualTo(0);
+        repository = reopen();
+        Long newId = repository.save(Post.builder().title("새 글").content("새 내용").build()).getId();
+
+        // then
+        assertNull(repository.getDetail(ids.get(2)));
+        assertFalse(repository.existsById(ids.get(2)));
+        assertThat(repository.count()).isEqualTo(3);
+        assertThat(newId).isGreaterThan(ids.get(2));
+    }
+
+    @Test
+    @DisplayName("압축하면 이전 버전과 삭제된 글이 사라지고, 글과 다음 id는 그대로 남는다.")
+    void compact() {
+        // given
+        repository = open();
+        List<Long> ids = repository.saveAllInBatch(posts(50));
+        for (int i = 0; i < 20; i++) {
+            repository.updatePosts(ids, "제목 " + i, null);
+        }
+        repository.deletePosts(ids.subList(40, 50));
+        long before = repository.getLogBytes();
+
+        // when
+        repository.compact();
+
+        // then
+        assertThat(repository.getLogBytes()).isLessThan(before / 10);
+        assertThat(repository.getLogBytes()).isGreaterThanOrEqualTo(repository.getLiveBytes());
+
+        repository = reopen();
+        assertThat(repository.count()).isEqualTo(40);
+        assertThat(repository.getDetail(ids.get(0)).getTitle()).isEqualTo("제목 19");
+        assertThat(repository.getDetail(ids.get(0)).getContent()).isEqualTo("내용 0");
+        assertThat(repository.getVersion(ids.get(0)).getVersion()).isEqualTo(20L);
+        assertThat(repository.save(Post.builder().title("새 글").content("새 내용").build()).getId())
+                .isGreaterThan(ids.get(49));
+    }
+
+    @Test
+    @DisplayName("목록은 PostRepositoryImpl과 같은 순서, 같은 범위로 조회한다. (offset, after, before)")
+    void page() {
+        // given
+        repository = open();
+        List<Long> ids = repository.saveAllInBatch(posts(30));
+        Long id20 = ids.get(19);
+
+        // expected
+        assertThat(idsOf(repository.getList(PostSearch.builder().page(2).size(5).build())))
+                .containsExactly(ids.get(24), ids.get(23), ids.get(22), ids.get(21), ids.get(20));
+        assertThat(idsOf(repository.getList(PostSearch.builder().size(3).after(PostCursor.encode(id20)).build())))
+                .containsExactly(ids.get(18), ids.get(17), ids.get(16));
+        assertThat(idsOf(repository.getList(PostSearch.builder().size(3).before(PostCursor.encode(id20)).build())))
+                .containsExactly(ids.get(22), ids.get(21), ids.get(20));
+        assertThat(repository.getVersionList(PostSearch.builder().page(2).size(5).build()))
+                .extracting("id")
+                .containsExactly(ids.get(24), ids.get(23), ids.get(22), ids.get(21), ids.get(20));
+        assertThat(repository.getIdsInRange(ids.get(0), ids.get(9), ids.get(4), 3))
+                .containsExactly(ids.get(5), ids.get(6), ids.get(7));
+    }
+
+    @Test
+    @DisplayName("요약 목록은 내용 앞 200자만 돌려준다.")
+    void summary() {
+        // given
+        repository = open();
+        String content = "가".repeat(500);
+        repository.save(Post.builder().title("제목").content(content).build());
+
+        // when
+        List<PostResponse> summaries = repository.getSummaryList(PostSearch.builder().summary(true).build());
+
+        // then
+        assertThat(summaries.get(0).getContent()).isEqualTo("가".repeat(200));
+    }
+
+    private LogPostRepository open() {
+        return new LogPostRepository(logPath().toString(), REGION_SIZE, false, 0.5, 0);
+    }
+
+    private LogPostRepository reopen() {
+        repository.destroy();
+        return open();
+    }
+
+    private Path logPath() {
+        return dir.resolve("posts.log");
+    }
+
+    private static List<Post> posts(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Post.builder().title("제목 " + i).content("내용 " + i).build())
+                .collect(ArrayList::new, List::add, List::addAll);
+    }
+
+    private static List<Long> idsOf(List<PostResponse> posts) {
+        return posts.stream().map(PostResponse::getId).toList();
+    }
+}
@@ -0,0 +1,149 @@
+package study.hodolmanblogstudy.writer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import study.hodolmanblogstudy.HodolmanBlogStudyApplication;
+import study.hodolmanblogstudy.counter.PostCounter;
+import study.hodolmanblogstudy.domain.Post;
+import study.hodolmanblogstudy.exception.ServiceUnavailable;
+import study.hodolmanblogstudy.repository.PostRepository;
+import study.hodolmanblogstudy.request.PostCreate;
+import study.hodolmanblogstudy.service.PostService;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 글 등록 쓰기 지연 (blog.storage.write-behind.enabled=true)
+ * 쓰기 스레드가 별도 트랜잭션으로 커밋하기 때문에 @Transactional 없이 테스트한다.
+ */
+@SpringBootTest(properties = "blog.storage.write-behind.enabled=true")
+class PostWriteBufferTest {
+
+    @Autowired
+    private PostWriteBuffer postWriteBuffer;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCounter postCounter;
+
+    @BeforeEach
+    void before() {
+        postRepository.deleteAll();
+        postCounter.reconcile();
+    }
+
+    @AfterEach
+    void after() {
+        postRepository.deleteAll();
+        postCounter.reconcile();
+    }
+
+    @Test
+    @DisplayName("동시에 등록한 글은 응답받은 id로 모두 저장되어 있다.")
+    void write() throws Exception {
+        // given
+        int threads = 8;
+        int postsPerThread = 100;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < postsPerThread; i++) {
+                    ids.add(postService.write(PostCreate.builder()
+                            .title("제목 " + thread + "-" + i)
+                            .content("내용 " + thread + "-" + i)
+                            .build()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(ids).hasSize(threads * postsPerThread);
+        assertThat(postRepository.count()).isEqualTo(threads * postsPerThread);
+        assertThat(postCounter.get()).isEqualTo(threads * postsPerThread);
+
+        Long id = ids.iterator().next();
+        Post post = postRepository.findById(id).orElseThrow();
+        assertThat(post.getVersion()).isEqualTo(0L);
+        assertThat(postService.get(id).getTitle()).isEqualTo(post.getTitle());
+    }
+
+    @Test
+    @DisplayName("쓰기 지연으로 저장한 글과 JPA로 저장한 글의 id는 겹치지 않는다.")
+    void idBlocks() {
+        // when
+        Long bufferedId = postService.write(PostCreate.builder().title("제목 1").content("내용 1").build());
+        Long savedId = postRepository.save(Post.builder().title("제목 2").content("내용 2").build()).getId();
+
+        // then
+        assertThat(bufferedId).isNotEqualTo(savedId);
+        assertThat(postRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("멈출 때 큐에 남은 글을 모두 저장하고, 멈춘 뒤에는 새 글을 받지 않는다.")
+    void stop() {
+        // given
+        List<PendingPost> pendings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pendings.add(postWriteBuffer.submit("제목 " + i, "내용 " + i));
+        }
+
+        // when
+        postWriteBuffer.stop();
+
+        // then
+        assertThat(pendings).allMatch(pending -> pending.getCommitted().isDone()
+                && !pending.getCommitted().isCompletedExceptionally());
+        assertThat(postRepository.count()).isEqualTo(1000);
+        assertThrows(ServiceUnavailable.class, () -> postWriteBuffer.submit("제목", "내용"));
+    }
+
+    @Test
+    @DisplayName("log 저장소와 함께 켜면 시작하지 않는다.")
+    void logEngine(@TempDir Path dir) {
+        // expected
+        assertThatThrownBy(() -> new SpringApplicationBuilder(HodolmanBlogStudyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:write-behind-log",
+                        "--blog.storage.engine=log",
+                        "--blog.storage.log.path=" + dir.resolve("posts.log"),
+                        "--blog.storage.write-behind.enabled=true"))
+                .rootCause()
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("blog.storage.engine=log");
+    }
+}